@@ -0,0 +1,71 @@
+package imd.ufrn.br;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.json.Json;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the JMH suites (accepting the usual JMH command line) and keeps every run as
+ * {@code jmh-<timestamp>.json} plus {@code latest.json} in {@code benchResults} (default
+ * {@code results}). When {@code baseline.json} exists there, the score change of each benchmark
+ * against it is printed, so a harness change can be judged against a saved run.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Path.of(System.getProperty("benchResults", "results"));
+        Files.createDirectories(dir);
+        Path result = dir.resolve("jmh-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        Files.copy(result, dir.resolve("latest.json"), StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Benchmark results written to " + result.toAbsolutePath());
+        Path baseline = dir.resolve("baseline.json");
+        if (Files.exists(baseline)) System.out.print(compare(scores(baseline), scores(result)));
+    }
+
+    /** Score per benchmark (with its parameters) from a JMH JSON result file. */
+    @SuppressWarnings("unchecked")
+    static Map<String, Double> scores(Path file) throws Exception {
+        List<Map<String, Object>> runs = new Json().toType(Files.readString(file, StandardCharsets.UTF_8), Json.LIST_OF_MAPS_TYPE);
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (Map<String, Object> run : runs) {
+            Object params = run.get("params");
+            String key = run.get("benchmark") + (params == null ? "" : " " + params);
+            Map<String, Object> metric = (Map<String, Object>) run.get("primaryMetric");
+            scores.put(key, ((Number) metric.get("score")).doubleValue());
+        }
+        return scores;
+    }
+
+    static String compare(Map<String, Double> baseline, Map<String, Double> current) {
+        StringBuilder out = new StringBuilder("Against baseline.json (lower is better for time modes):\n");
+        current.forEach((benchmark, score) -> {
+            Double before = baseline.get(benchmark);
+            String change = before == null || before == 0 ? "new" : String.format("%+.1f%%", (score - before) / before * 100);
+            out.append(String.format("  %-70s %12.3f %8s%n", benchmark, score, change));
+        });
+        return out.toString();
+    }
+}
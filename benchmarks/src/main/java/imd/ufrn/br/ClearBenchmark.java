@@ -0,0 +1,63 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.EditProfilePage.Field;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emptying the name input: the keyboard-driven {@link ProfileFlows#robustClear}, a single script
+ * that sets the value and fires the events the form listens to, and WebDriver's own clear().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClearBenchmark {
+    private static final String JS_CLEAR = "var el = arguments[0];"
+            + "Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set.call(el, '');"
+            + "el.dispatchEvent(new Event('input', { bubbles: true }));"
+            + "el.dispatchEvent(new Event('change', { bubbles: true }));";
+
+    private WebElement name;
+
+    // The raw element, not the page's cached wrapper, whose re-validation would add a round trip per call
+    @Setup(Level.Trial)
+    public void locate(EditPageState page) {
+        name = page.driver.findElement(Field.NOME.locator());
+    }
+
+    @Setup(Level.Invocation)
+    public void refill(EditPageState page) {
+        page.resetForm();
+    }
+
+    @Benchmark
+    public void robustClear(EditPageState page) {
+        page.flows.robustClear(name);
+    }
+
+    @Benchmark
+    public void jsClear(EditPageState page) {
+        ((JavascriptExecutor) page.driver).executeScript(JS_CLEAR, name);
+    }
+
+    @Benchmark
+    public void webDriverClear() {
+        name.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package imd.ufrn.br;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a test pays for its browser: a cold headless Chrome start against a checkout from a warm
+ * {@link DriverPool}, including the reset on release.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriverStartupBenchmark {
+    private DriverPool pool;
+    private WebDriver started;
+
+    @Setup(Level.Trial)
+    public void warmPool() {
+        pool = new DriverPool(DriverPool::newHeadlessChrome, 1);
+        pool.release(pool.checkout(PerformanceProfile.FAST));
+    }
+
+    @TearDown(Level.Invocation)
+    public void quitStarted() {
+        if (started != null) started.quit();
+        started = null;
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public WebDriver coldStart() {
+        started = DriverPool.newHeadlessChrome(PerformanceProfile.FAST);
+        return started;
+    }
+
+    @Benchmark
+    public WebDriver pooledReuse() {
+        WebDriver driver = pool.checkout(PerformanceProfile.FAST);
+        pool.release(driver);
+        return driver;
+    }
+}
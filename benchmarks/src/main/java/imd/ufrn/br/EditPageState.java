@@ -0,0 +1,53 @@
+package imd.ufrn.br;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A headless browser logged in to a local {@link FakeGestaoServer} and sitting on the profile form,
+ * shared by the benchmarks that act on that page.
+ */
+@State(Scope.Benchmark)
+public class EditPageState {
+    static final Credentials ACCOUNT = new Credentials("bench", "bench-pass");
+    static final String VALID_NAME = "Benchmark User";
+
+    FakeGestaoServer server;
+    WebDriver driver;
+    ProfileFlows flows;
+    EditProfilePage edit;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        server = new FakeGestaoServer(0, 0, List.of(ACCOUNT)).start();
+        driver = DriverPool.newHeadlessChrome(PerformanceProfile.FAST);
+        flows = new ProfileFlows(driver, PerformanceProfile.FAST, server.baseUrl(), Duration.ofSeconds(10),
+                new StepTimings(), new SessionCache(Duration.ofSeconds(5)), ACCOUNT);
+        flows.ensureLoggedIn();
+        flows.openEdit();
+        edit = flows.edit();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        driver.quit();
+        server.close();
+    }
+
+    /** Puts the form back in a savable state and drops toasts and errors left by the last call. */
+    void resetForm() {
+        ((JavascriptExecutor) driver).executeScript(
+                "document.getElementById('input-nome').value = arguments[0];"
+                + "document.querySelectorAll('.p-toast-message, .p-error').forEach(function (e) { e.remove(); });",
+                VALID_NAME);
+    }
+}
@@ -0,0 +1,54 @@
+package imd.ufrn.br;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the Salvar button: the suite's text-matching XPath, an equivalent CSS selector, and a hit
+ * in the {@link ElementCache} the page objects use.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+    private static final By SAVE_CSS = By.cssSelector("button#btn-salvar");
+
+    private ElementCache cache;
+
+    @Setup(Level.Trial)
+    public void warmCache(EditPageState page) {
+        cache = new ElementCache(page.driver);
+        cache.get(EditProfilePage.SAVE);
+    }
+
+    @Benchmark
+    public WebElement xpath(EditPageState page) {
+        return page.driver.findElement(EditProfilePage.SAVE);
+    }
+
+    @Benchmark
+    public WebElement css(EditPageState page) {
+        return page.driver.findElement(SAVE_CSS);
+    }
+
+    @Benchmark
+    public WebElement cached() {
+        return cache.get(EditProfilePage.SAVE);
+    }
+}
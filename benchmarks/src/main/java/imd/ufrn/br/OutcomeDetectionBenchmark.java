@@ -0,0 +1,74 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.EditProfilePage.Field;
+import imd.ufrn.br.OutcomeWaiter.Outcome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save-then-detect round trips: the in-page {@link OutcomeWaiter} against polling with
+ * {@link WebDriverWait} at its default interval, for a success toast (answered by the server) and
+ * for an inline field error (rendered synchronously by the click).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutcomeDetectionBenchmark {
+    private static final Duration BUDGET = Duration.ofSeconds(3);
+    private static final By SUCCESS_TOAST = By.cssSelector(".p-toast-message-success");
+    private static final By NAME_ERROR = By.cssSelector("[id='input-nome-error']");
+
+    @Setup(Level.Invocation)
+    public void reset(EditPageState page) {
+        page.resetForm();
+    }
+
+    private static void emptyNameAndSave(EditPageState page) {
+        ((JavascriptExecutor) page.driver).executeScript("document.getElementById('input-nome').value = '';");
+        page.edit.save();
+    }
+
+    @Benchmark
+    public Outcome successToastOutcomeWaiter(EditPageState page) {
+        page.edit.save();
+        return OutcomeWaiter.await(page.driver, BUDGET);
+    }
+
+    @Benchmark
+    public WebElement successToastPolling(EditPageState page) {
+        page.edit.save();
+        return new WebDriverWait(page.driver, BUDGET).until(ExpectedConditions.visibilityOfElementLocated(SUCCESS_TOAST));
+    }
+
+    @Benchmark
+    public Outcome fieldErrorOutcomeWaiter(EditPageState page) {
+        emptyNameAndSave(page);
+        return OutcomeWaiter.await(page.driver, BUDGET, Field.NOME.anyError());
+    }
+
+    @Benchmark
+    public WebElement fieldErrorPolling(EditPageState page) {
+        emptyNameAndSave(page);
+        return new WebDriverWait(page.driver, BUDGET).until(ExpectedConditions.visibilityOfElementLocated(NAME_ERROR));
+    }
+}
@@ -0,0 +1,203 @@
+package imd.ufrn.br;
+
+import org.junit.rules.ExternalResource;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshots the profile of every test account (name, CPF, email, date of birth and avatar) through
+ * the account API before the class runs and puts it back afterwards, so tests can leave their
+ * changes behind instead of undoing them through the form. The fields go back in one
+ * {@code PUT /api/usuario/conta} per account, only when they changed; the avatar is re-uploaded
+ * only when it changed and the original was an uploaded image. The snapshot is a safety net:
+ * tests still undo their own changes. A site without this account API, i.e. whose
+ * {@code GET /api/usuario/conta} answers anything but a 2xx JSON object, gets no snapshot; a login
+ * that fails while taking one fails the class before a test runs.
+ */
+public class AccountSnapshots extends ExternalResource {
+    static final String ACCOUNT_PATH = "/api/usuario/conta";
+    static final String AVATAR_PATH = "/api/usuario/foto";
+    static final List<String> FIELDS = List.of("nome", "cpf", "email", "dataNascimento");
+    private static final Map<String, String> UPLOAD_EXTENSIONS = Map.of(
+            "image/jpeg", "jpg", "image/png", "png", "image/webp", "webp", "image/gif", "gif");
+
+    /** Authenticates an account and returns the {@code Cookie} header of its session. */
+    @FunctionalInterface
+    public interface Login {
+        String cookieHeader(Credentials account) throws Exception;
+    }
+
+    public record Snapshot(Map<String, String> fields, String foto, byte[] avatar, String avatarType) {}
+
+    private final String baseUrl;
+    private final List<Credentials> accounts;
+    private final Login login;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final Json json = new Json();
+    private final Map<String, Snapshot> snapshots = new HashMap<>();
+
+    public AccountSnapshots(String baseUrl, List<Credentials> accounts, Login login, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.accounts = List.copyOf(accounts);
+        this.login = login;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Logs in with a pooled browser, through the session cache when it can, and reuses the browser's
+     * cookies for the API calls. The login also leaves the session cached for the tests.
+     */
+    public static AccountSnapshots inBrowser(String baseUrl, List<Credentials> accounts, DriverPool pool,
+                                             SessionCache sessions, StepTimings timings, Duration timeout) {
+        return new AccountSnapshots(baseUrl, accounts, account -> {
+            WebDriver driver = pool.checkout();
+            try {
+                new ProfileFlows(driver, pool.profileOf(driver), baseUrl, timeout, timings, sessions, account).ensureLoggedIn();
+                return driver.manage().getCookies().stream()
+                        .map(c -> c.getName() + "=" + c.getValue())
+                        .collect(Collectors.joining("; "));
+            } finally {
+                pool.release(driver);
+            }
+        }, timeout);
+    }
+
+    @Override
+    protected void before() {
+        List<String> failures = new ArrayList<>();
+        Exception cause = null;
+        for (Credentials account : accounts) {
+            try {
+                Snapshot snapshot = take(account);
+                if (snapshot != null) snapshots.put(account.user(), snapshot);
+                else System.out.println("AccountSnapshots: " + account.user() + " not snapshotted (no account API)");
+            } catch (Exception e) {
+                failures.add(account.user() + ": " + e);
+                if (cause == null) cause = e;
+            }
+        }
+        // Running on would change accounts that nothing puts back
+        if (!failures.isEmpty()) throw new IllegalStateException("Could not snapshot test accounts: " + failures, cause);
+    }
+
+    @Override
+    protected void after() {
+        List<String> failures = new ArrayList<>();
+        for (Credentials account : accounts) {
+            Snapshot snapshot = snapshots.get(account.user());
+            if (snapshot == null) continue;
+            try {
+                System.out.println("AccountSnapshots: " + account.user() + " " + restore(account, snapshot));
+            } catch (Exception e) {
+                failures.add(account.user() + ": " + e);
+            }
+        }
+        if (!failures.isEmpty()) throw new IllegalStateException("Could not restore test accounts: " + failures);
+    }
+
+    /** The account's snapshot, or null when the site has no account API to take one from. */
+    public Snapshot snapshot(Credentials account) {
+        return snapshots.get(account.user());
+    }
+
+    /**
+     * Reads the account's profile fields and avatar, or returns null when the site has no account API.
+     * Without a readable avatar the snapshot only covers the fields.
+     */
+    public Snapshot take(Credentials account) throws Exception {
+        String cookies = login.cookieHeader(account);
+        Map<String, Object> current = account(cookies);
+        if (current == null) return null;
+        if (!(current.get("foto") instanceof String foto) || foto.isBlank()) {
+            return new Snapshot(fields(current), null, null, null);
+        }
+        HttpResponse<byte[]> avatar = client.send(request(URI.create(baseUrl).resolve(foto), cookies).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (avatar.statusCode() / 100 != 2) return new Snapshot(fields(current), null, null, null);
+        return new Snapshot(fields(current), foto, avatar.body(),
+                avatar.headers().firstValue("Content-Type").orElse("application/octet-stream"));
+    }
+
+    /** Puts the snapshot back and describes what had to change. */
+    public String restore(Credentials account, Snapshot snapshot) throws Exception {
+        String cookies = login.cookieHeader(account);
+        Map<String, Object> current = account(cookies);
+        if (current == null) throw new IllegalStateException("GET " + ACCOUNT_PATH + " no longer answers with the account");
+        List<String> restored = new ArrayList<>();
+        if (!fields(current).equals(snapshot.fields())) {
+            HttpResponse<String> put = client.send(request(URI.create(baseUrl + ACCOUNT_PATH), cookies)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(json.toJson(snapshot.fields())))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            expectSuccess("PUT " + ACCOUNT_PATH, put);
+            restored.add("fields");
+        }
+        if (snapshot.foto() != null && !Objects.equals(String.valueOf(current.get("foto")), snapshot.foto())) {
+            String extension = UPLOAD_EXTENSIONS.get(snapshot.avatarType().split(";")[0].trim());
+            if (extension == null) {
+                restored.add("avatar not restored (original " + snapshot.avatarType() + " cannot be uploaded)");
+            } else {
+                HttpResponse<String> upload = client.send(request(URI.create(baseUrl + AVATAR_PATH), cookies)
+                        .header("Content-Type", snapshot.avatarType())
+                        .header("X-Filename", "avatar." + extension)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(snapshot.avatar()))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                expectSuccess("POST " + AVATAR_PATH, upload);
+                restored.add("avatar");
+            }
+        }
+        return restored.isEmpty() ? "unchanged" : "restored " + String.join(", ", restored);
+    }
+
+    /** The account as JSON, or null when the answer is not a 2xx JSON object, e.g. an SPA's HTML fallback. */
+    private Map<String, Object> account(String cookies) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request(URI.create(baseUrl + ACCOUNT_PATH), cookies).GET().build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        boolean isJson = response.headers().firstValue("Content-Type").orElse("").contains("json");
+        if (response.statusCode() / 100 != 2 || !isJson || !response.body().trim().startsWith("{")) return null;
+        try {
+            return json.toType(response.body(), Json.MAP_TYPE);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> fields(Map<String, Object> account) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        FIELDS.forEach(f -> fields.put(f, account.get(f) == null ? "" : account.get(f).toString()));
+        return fields;
+    }
+
+    private HttpRequest.Builder request(URI uri, String cookies) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(timeout);
+        if (!cookies.isEmpty()) request.header("Cookie", cookies);
+        return request;
+    }
+
+    private static void expectSuccess(String call, HttpResponse<?> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(call + " answered HTTP " + response.statusCode());
+        }
+    }
+}
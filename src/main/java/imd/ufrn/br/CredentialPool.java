@@ -0,0 +1,72 @@
+package imd.ufrn.br;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Hands out test accounts so concurrent workers never share one. Accounts come from
+ * {@code TEST_USER_1}/{@code TEST_PASS_1}, {@code TEST_USER_2}/{@code TEST_PASS_2}, ... and fall back
+ * to the single {@code TEST_USER}/{@code TEST_PASS} pair; with neither configured there is no pool.
+ * Under a {@link Shard} the shared pool only holds that shard's share of the accounts.
+ */
+public class CredentialPool {
+    private static volatile CredentialPool shared;
+
+    private final List<Credentials> accounts;
+    private final BlockingQueue<Credentials> available;
+
+    public CredentialPool(List<Credentials> accounts) {
+        if (accounts.isEmpty()) throw new IllegalArgumentException("No test accounts configured");
+        this.accounts = List.copyOf(accounts);
+        this.available = new LinkedBlockingQueue<>(accounts);
+    }
+
+    public static CredentialPool shared() {
+        if (shared == null) {
+            synchronized (CredentialPool.class) {
+                if (shared == null) shared = new CredentialPool(Shard.current().accounts(fromEnv(Credentials.env()).accounts()));
+            }
+        }
+        return shared;
+    }
+
+    static CredentialPool fromEnv(Dotenv env) {
+        List<Credentials> accounts = new ArrayList<>();
+        for (int i = 1; env.get("TEST_USER_" + i) != null; i++) {
+            accounts.add(new Credentials(env.get("TEST_USER_" + i), env.get("TEST_PASS_" + i)));
+        }
+        if (accounts.isEmpty() && env.get("TEST_USER") != null) {
+            accounts.add(new Credentials(env.get("TEST_USER"), env.get("TEST_PASS")));
+        }
+        if (accounts.isEmpty()) {
+            throw new IllegalStateException("No test accounts configured: set TEST_USER/TEST_PASS or TEST_USER_1/TEST_PASS_1 in .env");
+        }
+        return new CredentialPool(accounts);
+    }
+
+    /** Blocks until an account is free. */
+    public Credentials lease() {
+        try {
+            return available.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a test account", e);
+        }
+    }
+
+    public void release(Credentials credentials) {
+        if (credentials != null) available.offer(credentials);
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    public List<Credentials> accounts() {
+        return accounts;
+    }
+}
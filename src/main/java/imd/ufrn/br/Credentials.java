@@ -0,0 +1,34 @@
+package imd.ufrn.br;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * A login/password pair. The {@code .env} file is read once per JVM rather than on every lookup.
+ */
+public record Credentials(String user, String pass) {
+    private static volatile Dotenv env;
+
+    public static Dotenv env() {
+        Dotenv loaded = env;
+        if (loaded == null) {
+            synchronized (Credentials.class) {
+                if (env == null) {
+                    env = Dotenv.configure().ignoreIfMissing().load();
+                }
+                loaded = env;
+            }
+        }
+        return loaded;
+    }
+
+    /** The default account from {@code TEST_USER}/{@code TEST_PASS}. */
+    public static Credentials fromEnv() {
+        Dotenv dotenv = env();
+        return new Credentials(dotenv.get("TEST_USER"), dotenv.get("TEST_PASS"));
+    }
+
+    @Override
+    public String toString() {
+        return "Credentials[" + user + "]";
+    }
+}
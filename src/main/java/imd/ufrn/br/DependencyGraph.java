@@ -0,0 +1,102 @@
+package imd.ufrn.br;
+
+import org.junit.runners.model.FrameworkMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link DependsOn} edges between the test methods of a class, used by {@link ParallelRunner}
+ * to validate them and to order the methods.
+ */
+public final class DependencyGraph {
+    private DependencyGraph() {
+    }
+
+    public static List<String> dependencies(FrameworkMethod method) {
+        DependsOn dependsOn = method.getAnnotation(DependsOn.class);
+        return dependsOn == null ? List.of() : List.of(dependsOn.value());
+    }
+
+    /** Unknown method names, self references and cycles, as initialization errors. */
+    public static List<Throwable> validate(List<FrameworkMethod> methods) {
+        List<Throwable> errors = new ArrayList<>();
+        Map<String, FrameworkMethod> byName = byName(methods);
+        for (FrameworkMethod method : methods) {
+            for (String dependency : dependencies(method)) {
+                if (dependency.equals(method.getName())) {
+                    errors.add(new Exception("Test " + method.getName() + " depends on itself"));
+                } else if (!byName.containsKey(dependency)) {
+                    errors.add(new Exception("Test " + method.getName() + " depends on unknown test " + dependency));
+                }
+            }
+        }
+        if (errors.isEmpty() && sort(methods).size() < methods.size()) {
+            errors.add(new Exception("@DependsOn cycle between tests of " + methods.get(0).getDeclaringClass().getSimpleName()));
+        }
+        return errors;
+    }
+
+    /** Dependencies first, otherwise in the given order. Methods in a cycle go last. */
+    public static List<FrameworkMethod> order(List<FrameworkMethod> methods) {
+        List<FrameworkMethod> ordered = sort(methods);
+        methods.stream().filter(m -> !ordered.contains(m)).forEach(ordered::add);
+        return ordered;
+    }
+
+    /**
+     * The methods split into groups joined by {@link DependsOn} edges in either direction, each and
+     * the groups themselves in the given order. A group has to run in one JVM, since a dependent
+     * waits on the outcome of its dependency there.
+     */
+    public static List<List<FrameworkMethod>> groups(List<FrameworkMethod> methods) {
+        Map<String, FrameworkMethod> byName = byName(methods);
+        Map<FrameworkMethod, FrameworkMethod> root = new HashMap<>();
+        methods.forEach(m -> root.put(m, m));
+        for (FrameworkMethod method : methods) {
+            for (String dependency : dependencies(method)) {
+                FrameworkMethod other = byName.get(dependency);
+                if (other != null) root.put(find(root, method), find(root, other));
+            }
+        }
+        Map<FrameworkMethod, List<FrameworkMethod>> groups = new LinkedHashMap<>();
+        for (FrameworkMethod method : methods) {
+            groups.computeIfAbsent(find(root, method), r -> new ArrayList<>()).add(method);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static FrameworkMethod find(Map<FrameworkMethod, FrameworkMethod> root, FrameworkMethod method) {
+        while (root.get(method) != method) method = root.get(method);
+        return method;
+    }
+
+    private static List<FrameworkMethod> sort(List<FrameworkMethod> methods) {
+        Map<String, FrameworkMethod> byName = byName(methods);
+        Map<FrameworkMethod, Integer> pending = new HashMap<>();
+        for (FrameworkMethod method : methods) {
+            pending.put(method, (int) dependencies(method).stream().distinct().filter(byName::containsKey).count());
+        }
+        List<FrameworkMethod> ordered = new ArrayList<>();
+        List<FrameworkMethod> remaining = new ArrayList<>(methods);
+        while (!remaining.isEmpty()) {
+            FrameworkMethod next = remaining.stream().filter(m -> pending.get(m) == 0).findFirst().orElse(null);
+            if (next == null) break;
+            remaining.remove(next);
+            ordered.add(next);
+            for (FrameworkMethod method : remaining) {
+                if (dependencies(method).contains(next.getName())) pending.merge(method, -1, Integer::sum);
+            }
+        }
+        return ordered;
+    }
+
+    private static Map<String, FrameworkMethod> byName(List<FrameworkMethod> methods) {
+        Map<String, FrameworkMethod> byName = new LinkedHashMap<>();
+        methods.forEach(m -> byName.put(m.getName(), m));
+        return byName;
+    }
+}
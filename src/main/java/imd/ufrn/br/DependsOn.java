@@ -0,0 +1,17 @@
+package imd.ufrn.br;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the test methods a test relies on. Under {@link ParallelRunner} it runs after them and is
+ * skipped when any of them did not pass. Every test also implicitly depends on the login done in
+ * its class's {@code @Before}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface DependsOn {
+    String[] value();
+}
@@ -0,0 +1,187 @@
+package imd.ufrn.br;
+
+import org.junit.rules.ExternalResource;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps warm browser sessions alive between tests. Drivers are reset (cookies,
+ * web storage, about:blank) on release instead of being quit, and only closed
+ * when the pool itself shuts down. Sessions are kept apart per {@link PerformanceProfile}, since
+ * the profile is fixed when the browser starts.
+ */
+public class DriverPool extends ExternalResource {
+    private final Function<PerformanceProfile, WebDriver> factory;
+    private final int maxIdle;
+    private final Map<PerformanceProfile, LinkedBlockingDeque<WebDriver>> idle = new EnumMap<>(PerformanceProfile.class);
+    private final Map<WebDriver, PerformanceProfile> all = new IdentityHashMap<>();
+    private final ThreadLocal<List<WebDriver>> heldBack = new ThreadLocal<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong checkoutNanos = new AtomicLong();
+    private final AtomicLong maxCheckoutNanos = new AtomicLong();
+
+    public DriverPool(Function<PerformanceProfile, WebDriver> factory, int maxIdle) {
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+        for (PerformanceProfile profile : PerformanceProfile.values()) {
+            idle.put(profile, new LinkedBlockingDeque<>());
+        }
+    }
+
+    /** Pool of headless Chrome sessions configured by their performance profile. */
+    public static DriverPool headlessChrome() {
+        return new DriverPool(DriverPool::newHeadlessChrome, Runtime.getRuntime().availableProcessors());
+    }
+
+    static WebDriver newHeadlessChrome(PerformanceProfile profile) {
+        Logger.getLogger("org.openqa.selenium").setLevel(Level.SEVERE);
+        System.setProperty("webdriver.chrome.driver", "/usr/local/bin/chromedriver");
+
+        WebDriver driver = new ChromeDriver(profile.chromeOptions());
+        profile.applyTo(driver);
+        return driver;
+    }
+
+    public WebDriver checkout() {
+        return checkout(PerformanceProfile.defaultProfile());
+    }
+
+    public WebDriver checkout(PerformanceProfile profile) {
+        long start = System.nanoTime();
+        WebDriver driver = idle.get(profile).pollFirst();
+        if (driver != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            driver = factory.apply(profile);
+            synchronized (all) {
+                all.put(driver, profile);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        checkoutNanos.addAndGet(elapsed);
+        maxCheckoutNanos.accumulateAndGet(elapsed, Math::max);
+        return driver;
+    }
+
+    /**
+     * Until {@link #settleHeldBack}, drivers released on this thread are held back instead of going
+     * back to the pool, so no other worker picks one up before it is known to be healthy.
+     */
+    public void holdBackReleases() {
+        heldBack.set(new ArrayList<>());
+    }
+
+    /** Pools the drivers held back on this thread, or quits them when the work that used them failed. */
+    public void settleHeldBack(boolean healthy) {
+        List<WebDriver> held = heldBack.get();
+        heldBack.remove();
+        if (held == null) return;
+        for (WebDriver driver : held) {
+            if (healthy) release(driver);
+            else discard(driver);
+        }
+    }
+
+    /** Returns a driver to the pool, quitting it instead if the reset fails or the pool is full. */
+    public void release(WebDriver driver) {
+        if (driver == null) return;
+        List<WebDriver> held = heldBack.get();
+        if (held != null) {
+            held.add(driver);
+            return;
+        }
+        PerformanceProfile profile;
+        synchronized (all) {
+            profile = all.get(driver);
+        }
+        if (profile == null) return;
+        LinkedBlockingDeque<WebDriver> parked = idle.get(profile);
+        if (parked.size() >= maxIdle || !reset(driver)) {
+            discard(driver);
+            return;
+        }
+        parked.offerFirst(driver);
+    }
+
+    public PerformanceProfile profileOf(WebDriver driver) {
+        synchronized (all) {
+            return all.get(driver);
+        }
+    }
+
+    /** Quits a driver that should not be reused, e.g. after a crash. */
+    public void discard(WebDriver driver) {
+        if (driver == null) return;
+        discarded.incrementAndGet();
+        synchronized (all) {
+            all.remove(driver);
+        }
+        quietQuit(driver);
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            driver.manage().deleteAllCookies();
+            String url = driver.getCurrentUrl();
+            if (url != null && url.startsWith("http")) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    public void shutdown() {
+        idle.values().forEach(LinkedBlockingDeque::clear);
+        List<WebDriver> snapshot;
+        synchronized (all) {
+            snapshot = new ArrayList<>(all.keySet());
+            all.clear();
+        }
+        snapshot.forEach(DriverPool::quietQuit);
+    }
+
+    private static void quietQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException ignored) {
+        }
+    }
+
+    public long hits() { return hits.get(); }
+
+    public long misses() { return misses.get(); }
+
+    public String stats() {
+        long checkouts = hits.get() + misses.get();
+        double avgMs = checkouts == 0 ? 0 : checkoutNanos.get() / 1e6 / checkouts;
+        return String.format("DriverPool: checkouts=%d hits=%d misses=%d discarded=%d avgCheckout=%.1fms maxCheckout=%.1fms",
+                checkouts, hits.get(), misses.get(), discarded.get(), avgMs, maxCheckoutNanos.get() / 1e6);
+    }
+
+    @Override
+    protected void after() {
+        System.out.println(stats());
+        shutdown();
+    }
+}
@@ -0,0 +1,105 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.OutcomeWaiter.FieldError;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * /usuario/conta/editar: the profile form, its buttons and the header user menu.
+ */
+public class EditProfilePage extends Page {
+    public static final String PATH = "/usuario/conta/editar";
+
+    public static final By SAVE = By.xpath("//button[contains(.,'Salvar')]");
+    public static final By CANCEL = By.xpath("//button[contains(.,'Cancelar')]");
+    public static final By USER_MENU = By.cssSelector("button[aria-label='Abrir menu do usuário']");
+    public static final By AVATAR = By.cssSelector("button[aria-label='Abrir menu do usuário'] img");
+    public static final By LOGOUT = By.xpath("//button[contains(., 'Sair')]");
+    public static final By LOGIN_LABEL = By.id("lbl-input-login");
+
+    private static final DateTimeFormatter UI_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Form inputs by element id, each with the lookup for the inline errors rendered after it. */
+    public enum Field {
+        NOME("input-nome"),
+        CPF("pessoa.cpf"),
+        EMAIL("input-email"),
+        DATA_NASCIMENTO("pessoa.dataNascimento"),
+        FOTO("formFile");
+
+        private final String id;
+        private final By locator;
+
+        Field(String id) {
+            this.id = id;
+            this.locator = By.id(id);
+        }
+
+        public String id() { return id; }
+
+        public By locator() { return locator; }
+
+        public FieldError error(String textPart) {
+            return new FieldError(id, textPart);
+        }
+
+        public FieldError anyError() {
+            return FieldError.any(id);
+        }
+
+        /**
+         * The ways a value typed into this field may appear in a save request: as typed, form-encoded
+         * and, for the date of birth, as the ISO date an API is likely to send.
+         */
+        public List<String> payloadForms(String typed) {
+            Set<String> forms = new LinkedHashSet<>();
+            forms.add(typed);
+            forms.add(URLEncoder.encode(typed, StandardCharsets.UTF_8));
+            if (this == DATA_NASCIMENTO) {
+                try {
+                    forms.add(LocalDate.parse(typed, UI_DATE).toString());
+                } catch (DateTimeParseException e) {
+                    // Not a dd/MM/yyyy value; only the typed forms can match
+                }
+            }
+            return List.copyOf(forms);
+        }
+    }
+
+    public EditProfilePage(WebDriver driver, WebDriverWait wait, String baseUrl, StepTimings timings) {
+        super(driver, wait, baseUrl, timings);
+    }
+
+    @Override
+    protected String path() {
+        return PATH;
+    }
+
+    @Override
+    protected By readyMarker() {
+        return Field.NOME.locator();
+    }
+
+    public WebElement field(Field field) {
+        return element(field.locator());
+    }
+
+    public void save() {
+        jsClick(SAVE);
+    }
+
+    public void cancel() {
+        jsClick(CANCEL);
+    }
+}
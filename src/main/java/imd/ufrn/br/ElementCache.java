@@ -0,0 +1,121 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Resolved {@link WebElement} references keyed by locator. Page objects clear it whenever they
+ * navigate; {@link #with} also drops an entry and resolves it again once when the element has
+ * gone stale behind the cache's back (e.g. after a script-driven redirect). {@link #element} hands
+ * out a reference that goes through the same recovery on every call.
+ */
+public class ElementCache {
+    private final SearchContext context;
+    private final Map<By, WebElement> elements = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ElementCache(SearchContext context) {
+        this.context = context;
+    }
+
+    public WebElement get(By locator) {
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        WebElement found = context.findElement(locator);
+        elements.put(locator, found);
+        return found;
+    }
+
+    public <T> T with(By locator, Function<WebElement, T> action) {
+        try {
+            return action.apply(get(locator));
+        } catch (StaleElementReferenceException e) {
+            elements.remove(locator);
+            return action.apply(get(locator));
+        }
+    }
+
+    /**
+     * The element at {@code locator}, resolved now, as a reference whose every call runs through
+     * {@link #with}, so holding on to it across a re-render does not end in a stale element.
+     */
+    public WebElement element(By locator) {
+        get(locator);
+        return new CachedElement(locator);
+    }
+
+    public void invalidate() {
+        elements.clear();
+    }
+
+    public String stats() {
+        return String.format("ElementCache: hits=%d misses=%d", hits.get(), misses.get());
+    }
+
+    private final class CachedElement implements WebElement, WrapsElement {
+        private final By locator;
+
+        CachedElement(By locator) {
+            this.locator = locator;
+        }
+
+        private void run(Function<WebElement, ?> action) {
+            with(locator, action);
+        }
+
+        // Script arguments are unwrapped to this, so it is re-resolved when stale
+        @Override
+        public WebElement getWrappedElement() {
+            return with(locator, el -> {
+                el.getTagName();
+                return el;
+            });
+        }
+
+        @Override public void click() { run(el -> { el.click(); return null; }); }
+        @Override public void submit() { run(el -> { el.submit(); return null; }); }
+        @Override public void sendKeys(CharSequence... keys) { run(el -> { el.sendKeys(keys); return null; }); }
+        @Override public void clear() { run(el -> { el.clear(); return null; }); }
+        @Override public String getTagName() { return with(locator, WebElement::getTagName); }
+        @Override public String getDomProperty(String name) { return with(locator, el -> el.getDomProperty(name)); }
+        @Override public String getDomAttribute(String name) { return with(locator, el -> el.getDomAttribute(name)); }
+        @Override public String getAttribute(String name) { return with(locator, el -> el.getAttribute(name)); }
+        @Override public String getAriaRole() { return with(locator, WebElement::getAriaRole); }
+        @Override public String getAccessibleName() { return with(locator, WebElement::getAccessibleName); }
+        @Override public boolean isSelected() { return with(locator, WebElement::isSelected); }
+        @Override public boolean isEnabled() { return with(locator, WebElement::isEnabled); }
+        @Override public String getText() { return with(locator, WebElement::getText); }
+        @Override public List<WebElement> findElements(By by) { return with(locator, el -> el.findElements(by)); }
+        @Override public WebElement findElement(By by) { return with(locator, el -> el.findElement(by)); }
+        @Override public SearchContext getShadowRoot() { return with(locator, WebElement::getShadowRoot); }
+        @Override public boolean isDisplayed() { return with(locator, WebElement::isDisplayed); }
+        @Override public Point getLocation() { return with(locator, WebElement::getLocation); }
+        @Override public Dimension getSize() { return with(locator, WebElement::getSize); }
+        @Override public Rectangle getRect() { return with(locator, WebElement::getRect); }
+        @Override public String getCssValue(String name) { return with(locator, el -> el.getCssValue(name)); }
+        @Override public <X> X getScreenshotAs(OutputType<X> target) { return with(locator, el -> el.getScreenshotAs(target)); }
+
+        @Override
+        public String toString() {
+            return "cached " + locator;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package imd.ufrn.br;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the /gestao application: login, profile edit, password change and LGPD pages
+ * with the same element ids and toast classes as the real site, plus the JSON endpoints the edit
+ * form saves through. Every response can be delayed by a fixed artificial latency.
+ */
+public class FakeGestaoServer implements AutoCloseable {
+    static final String CONTEXT = "/gestao";
+    static final String SESSION_COOKIE = "GESTAO_SESSION";
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "webp", "gif");
+    private static final long MAX_UPLOAD_BYTES = 64L * 1024 * 1024;
+
+    private final HttpServer server;
+    // Virtual threads, so injected latency under load parks requests instead of holding a thread each
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fake-gestao-", 1).factory());
+    private final long latencyMillis;
+    private final Json json = new Json();
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final Map<String, String> templates = new ConcurrentHashMap<>();
+
+    /** Mutable account state; guarded by its own monitor. */
+    static final class Profile {
+        final String login;
+        final String pass;
+        String nome;
+        String cpf;
+        String email;
+        String dataNascimento;
+        byte[] avatar;
+        String avatarType = "image/svg+xml";
+        int avatarVersion;
+
+        Profile(String login, String pass) {
+            this.login = login;
+            this.pass = pass;
+            this.nome = "USUARIO " + login.toUpperCase(Locale.ROOT);
+            this.cpf = "529.982.247-25";
+            this.email = login.replaceAll("[^A-Za-z0-9._-]", "") + "@example.com";
+            this.dataNascimento = "15/03/1995";
+            this.avatar = DEFAULT_AVATAR;
+        }
+    }
+
+    private static final byte[] DEFAULT_AVATAR = ("<svg xmlns='http://www.w3.org/2000/svg' width='32' height='32'>"
+            + "<circle cx='16' cy='16' r='16' fill='#888'/></svg>").getBytes(StandardCharsets.UTF_8);
+
+    public FakeGestaoServer(int port, long latencyMillis, List<Credentials> accounts) throws IOException {
+        this.latencyMillis = latencyMillis;
+        for (Credentials c : accounts) {
+            if (c.user() != null && c.pass() != null) profiles.put(c.user(), new Profile(c.user(), c.pass()));
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(CONTEXT, this::handle);
+        server.setExecutor(executor);
+    }
+
+    public FakeGestaoServer start() {
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + CONTEXT;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    Profile profile(String login) {
+        return profiles.get(login);
+    }
+
+    // --- ROUTING ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (latencyMillis > 0) Thread.sleep(latencyMillis);
+            String path = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+            if (path.isEmpty()) path = "/";
+            String method = exchange.getRequestMethod();
+
+            if (path.startsWith("/static/")) {
+                serveStatic(exchange, path.substring("/static/".length()));
+                return;
+            }
+            if (path.equals("/login") || path.equals("/login/")) {
+                if (method.equals("POST")) login(exchange);
+                else if (currentProfile(exchange) != null) redirect(exchange, CONTEXT + "/");
+                else sendHtml(exchange, 200, render("login", Map.of("error", "")));
+                return;
+            }
+
+            Profile profile = currentProfile(exchange);
+            if (profile == null) {
+                if (path.startsWith("/api/")) sendJson(exchange, 401, Map.of("message", "Sessão expirada"));
+                else redirect(exchange, CONTEXT + "/login/");
+                return;
+            }
+            switch (method + " " + path) {
+                case "POST /logout" -> logout(exchange);
+                case "GET /", "GET /empresa/listar-empresas" -> page(exchange, profile, "home", Map.of());
+                case "GET /usuario/conta/editar" -> page(exchange, profile, "edit", editModel(profile));
+                case "GET /usuario/conta/senha" -> page(exchange, profile, "password", Map.of());
+                case "GET /lgpd" -> page(exchange, profile, "lgpd", lgpdModel(profile));
+                case "GET /api/usuario/conta" -> sendJson(exchange, 200, account(profile));
+                case "PUT /api/usuario/conta" -> updateAccount(exchange, profile);
+                case "PUT /api/usuario/senha" -> updatePassword(exchange);
+                case "GET /api/usuario/foto" -> serveAvatar(exchange, profile);
+                case "POST /api/usuario/foto" -> uploadAvatar(exchange, profile);
+                default -> sendHtml(exchange, 404, "<h1>404</h1>");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- SESSION ---
+
+    private Profile currentProfile(HttpExchange exchange) {
+        String token = cookie(exchange, SESSION_COOKIE);
+        String login = token == null ? null : sessions.get(token);
+        return login == null ? null : profiles.get(login);
+    }
+
+    private static String cookie(HttpExchange exchange, String name) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String part : header.split(";")) {
+                String[] kv = part.trim().split("=", 2);
+                if (kv.length == 2 && kv[0].equals(name)) return kv[1];
+            }
+        }
+        return null;
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String user = form.getOrDefault("username", "");
+        Profile profile = profiles.values().stream()
+                .filter(p -> { synchronized (p) { return p.login.equals(user) || p.email.equalsIgnoreCase(user); } })
+                .findFirst().orElse(null);
+        if (profile == null || !profile.pass.equals(form.get("password"))) {
+            sendHtml(exchange, 200, render("login", Map.of("error", "Usuário ou senha inválidos")));
+            return;
+        }
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, profile.login);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + token + "; Path=" + CONTEXT + "; HttpOnly");
+        redirect(exchange, CONTEXT + "/");
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        String token = cookie(exchange, SESSION_COOKIE);
+        if (token != null) sessions.remove(token);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=" + CONTEXT + "; Max-Age=0");
+        sendJson(exchange, 200, Map.of("redirect", CONTEXT + "/login/"));
+    }
+
+    // --- PAGES ---
+
+    private void page(HttpExchange exchange, Profile profile, String name, Map<String, String> model) throws IOException {
+        Map<String, String> full = new HashMap<>(model);
+        synchronized (profile) {
+            full.put("avatarUrl", CONTEXT + "/api/usuario/foto?v=" + profile.avatarVersion);
+            full.put("nomeCurto", profile.nome);
+        }
+        full.put("header", render("header", full));
+        sendHtml(exchange, 200, render(name, full));
+    }
+
+    private static Map<String, String> editModel(Profile p) {
+        synchronized (p) {
+            return Map.of("login", p.login, "nome", p.nome, "cpf", p.cpf, "email", p.email, "dataNascimento", p.dataNascimento);
+        }
+    }
+
+    private static Map<String, String> lgpdModel(Profile p) {
+        synchronized (p) {
+            return Map.of("nome", p.nome, "cpfMascarado", maskCpf(p.cpf), "emailMascarado", maskEmail(p.email),
+                    "dataNascimento", p.dataNascimento);
+        }
+    }
+
+    static String maskCpf(String cpf) {
+        return cpf.length() == 14 ? "***." + cpf.substring(4, 11) + "-**" : "***";
+    }
+
+    static String maskEmail(String email) {
+        int at = email.indexOf('@');
+        if (at < 2) return "*****" + email.substring(Math.max(at, 0));
+        return email.charAt(0) + "*****" + email.substring(at - 1);
+    }
+
+    // --- API ---
+
+    private static Map<String, Object> account(Profile p) {
+        synchronized (p) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("login", p.login);
+            body.put("nome", p.nome);
+            body.put("cpf", p.cpf);
+            body.put("email", p.email);
+            body.put("dataNascimento", p.dataNascimento);
+            body.put("foto", CONTEXT + "/api/usuario/foto?v=" + p.avatarVersion);
+            return body;
+        }
+    }
+
+    private void updateAccount(HttpExchange exchange, Profile profile) throws IOException {
+        Map<String, Object> body = json.toType(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        String nome = string(body.get("nome"));
+        String cpf = string(body.get("cpf"));
+        String email = string(body.get("email"));
+        String dataNascimento = string(body.get("dataNascimento"));
+
+        String error = null;
+        if (nome.isBlank()) error = "O campo nome é obrigatório";
+        else if (!isValidCpf(cpf)) error = "Informe um CPF válido";
+        else if (!email.matches("^[^\\s@]+@[^\\s@]+\\.[^\\s@]+$")) error = "Informe um email válido";
+        else if (!isPlausibleBirthDate(dataNascimento)) error = "Data de nascimento inválida";
+        else if (emailTakenByOther(profile, email)) error = "E-mail já cadastrado";
+        if (error != null) {
+            sendJson(exchange, 422, Map.of("message", error));
+            return;
+        }
+        synchronized (profile) {
+            profile.nome = nome.trim().toUpperCase(Locale.ROOT);
+            profile.cpf = cpf;
+            profile.email = email.trim();
+            profile.dataNascimento = dataNascimento;
+        }
+        sendJson(exchange, 200, account(profile));
+    }
+
+    private void updatePassword(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = json.toType(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        if (!string(body.get("nova")).equals(string(body.get("confirmacao")))) {
+            sendJson(exchange, 422, Map.of("message", "As senhas não conferem"));
+            return;
+        }
+        // Passwords stay unchanged so the configured credentials keep working
+        sendJson(exchange, 200, Map.of("message", "Senha alterada"));
+    }
+
+    private boolean emailTakenByOther(Profile self, String email) {
+        return profiles.values().stream().anyMatch(p -> {
+            if (p == self) return false;
+            synchronized (p) { return p.email.equalsIgnoreCase(email.trim()); }
+        });
+    }
+
+    private void serveAvatar(HttpExchange exchange, Profile profile) throws IOException {
+        byte[] bytes;
+        String type;
+        synchronized (profile) {
+            bytes = profile.avatar;
+            type = profile.avatarType;
+        }
+        send(exchange, 200, type, bytes);
+    }
+
+    private void uploadAvatar(HttpExchange exchange, Profile profile) throws IOException {
+        String filename = exchange.getRequestHeaders().getFirst("X-Filename");
+        String ext = filename == null || filename.lastIndexOf('.') < 0
+                ? "" : filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        if (!IMAGE_EXTENSIONS.contains(ext)) {
+            sendJson(exchange, 415, Map.of("message", "Formato de arquivo não permitido"));
+            return;
+        }
+        byte[] bytes = exchange.getRequestBody().readNBytes((int) MAX_UPLOAD_BYTES + 1);
+        if (bytes.length > MAX_UPLOAD_BYTES) {
+            sendJson(exchange, 413, Map.of("message", "Arquivo muito grande"));
+            return;
+        }
+        synchronized (profile) {
+            profile.avatar = bytes;
+            profile.avatarType = ext.equals("jpg") ? "image/jpeg" : "image/" + ext;
+            profile.avatarVersion++;
+        }
+        sendJson(exchange, 200, Map.of("foto", CONTEXT + "/api/usuario/foto?v=" + profile.avatarVersion));
+    }
+
+    // --- VALIDATION ---
+
+    static boolean isValidCpf(String cpf) {
+        String digits = cpf == null ? "" : cpf.replaceAll("\\D", "");
+        if (digits.length() != 11 || digits.chars().distinct().count() == 1) return false;
+        for (int check = 9; check <= 10; check++) {
+            int sum = 0;
+            for (int i = 0; i < check; i++) sum += (digits.charAt(i) - '0') * (check + 1 - i);
+            int digit = (sum * 10) % 11 % 10;
+            if (digit != digits.charAt(check) - '0') return false;
+        }
+        return true;
+    }
+
+    static boolean isPlausibleBirthDate(String value) {
+        try {
+            LocalDate date = LocalDate.parse(value, DATE);
+            return date.getYear() >= 1900 && !date.isAfter(LocalDate.now());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    // --- HTTP HELPERS ---
+
+    private String render(String name, Map<String, String> model) {
+        String template = templates.computeIfAbsent(name, n -> readResource(n + ".html"));
+        for (Map.Entry<String, String> e : model.entrySet()) {
+            String value = e.getKey().equals("header") ? e.getValue() : escape(e.getValue());
+            template = template.replace("{{" + e.getKey() + "}}", value);
+        }
+        return template.replace("{{context}}", CONTEXT);
+    }
+
+    private static String readResource(String name) {
+        try (InputStream in = FakeGestaoServer.class.getResourceAsStream("/fake-gestao/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing fake-gestao resource: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void serveStatic(HttpExchange exchange, String name) throws IOException {
+        if (!name.matches("[a-z-]+\\.(js|css)")) {
+            sendHtml(exchange, 404, "<h1>404</h1>");
+            return;
+        }
+        String type = name.endsWith(".js") ? "application/javascript" : "text/css";
+        send(exchange, 200, type + "; charset=utf-8", templates.computeIfAbsent(name, FakeGestaoServer::readResource)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+
+    private static String string(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length == 2) {
+                form.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), URLDecoder.decode(kv[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void sendHtml(HttpExchange exchange, int status, String html) throws IOException {
+        send(exchange, status, "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Map<String, ?> body) throws IOException {
+        send(exchange, status, "application/json; charset=utf-8", json.toJson(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
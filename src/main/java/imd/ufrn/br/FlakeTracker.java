@@ -0,0 +1,275 @@
+package imd.ufrn.br;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.ExternalResource;
+import org.junit.rules.TestRule;
+import org.junit.runners.model.Statement;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Retries failed tests and keeps every attempt, with its step timings, in an append-only JSONL
+ * history ({@code flakeHistory}) that survives {@code mvn clean}: {@code .flakes/history.jsonl}, or
+ * {@code .flakes/<name of reportDir>/history.jsonl} when {@code reportDir} is not {@code target}, so shards
+ * running side by side keep separate histories.
+ * From that history it flags tests whose failures go together with slow attempts, and quarantines
+ * chronic flakers: a quarantined test runs once and a failure is reported as skipped instead of
+ * failing the build. A test that fails in every recent run is broken, not flaky, and is never
+ * quarantined. {@code retries} (default 1) sets the retry count; {@code quarantine=false} turns
+ * quarantine off.
+ */
+public class FlakeTracker extends ExternalResource {
+    public enum Outcome { PASS, FAIL, SKIP }
+
+    public record Attempt(String test, String run, int attempt, Outcome outcome, long durationMs,
+                          String error, Map<String, Long> stepsMs) {}
+
+    /** Runs of a test considered for quarantine, and how many of them must have had a failure. */
+    static final int QUARANTINE_WINDOW = 10;
+    static final int QUARANTINE_FAILING_RUNS = 3;
+    /** Attempts needed, and the failure/duration correlation, before a test is flagged latency-sensitive. */
+    static final int CORRELATION_MIN_ATTEMPTS = 5;
+    static final double CORRELATION_THRESHOLD = 0.5;
+
+    private final Path history;
+    private final int retries;
+    private final boolean quarantineEnabled;
+    private final StepTimings timings;
+    private final String run = Instant.now().toString();
+    private final Json json = new Json();
+    private final List<Attempt> attempts = new ArrayList<>();
+    private Set<String> quarantined = Set.of();
+
+    public FlakeTracker(Path history, int retries, boolean quarantineEnabled, StepTimings timings) {
+        this.history = history;
+        this.retries = retries;
+        this.quarantineEnabled = quarantineEnabled;
+        this.timings = timings;
+    }
+
+    /** Configured from the {@code flakeHistory}, {@code retries} and {@code quarantine} system properties. */
+    public static FlakeTracker fromSystemProperties(StepTimings timings) {
+        String configured = System.getProperty("flakeHistory");
+        return new FlakeTracker(
+                configured != null ? Path.of(configured) : defaultHistory(),
+                Integer.getInteger("retries", 1),
+                !"false".equals(System.getProperty("quarantine")),
+                timings);
+    }
+
+    static Path defaultHistory() {
+        Path flakes = Path.of(".flakes");
+        Path reportDir = StepTimings.reportDir().normalize();
+        if (reportDir.equals(Path.of("target"))) return flakes.resolve("history.jsonl");
+        Path name = reportDir.toAbsolutePath().normalize().getFileName();
+        return (name == null ? flakes : flakes.resolve(name.toString())).resolve("history.jsonl");
+    }
+
+    @Override
+    protected void before() {
+        load();
+    }
+
+    @Override
+    protected void after() {
+        System.out.print(report());
+    }
+
+    /** Reads the history written by earlier runs and decides which tests are quarantined for this one. */
+    public synchronized void load() {
+        attempts.clear();
+        if (Files.exists(history)) {
+            try {
+                for (String line : Files.readAllLines(history, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) attempts.add(parse(line));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        quarantined = quarantineEnabled ? chronicFlakers() : Set.of();
+    }
+
+    public synchronized boolean isQuarantined(String test) {
+        return quarantined.contains(test);
+    }
+
+    /**
+     * Re-runs a failed test up to {@code retries} times. The drivers an attempt releases to
+     * {@code pool} only go back to it when the attempt did not fail; a failed attempt's driver is
+     * quit, so the retry's setUp checks out another session.
+     */
+    public TestRule retrying(DriverPool pool) {
+        return (base, description) -> new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                String test = StepTimings.testName(description);
+                boolean quarantinedTest = isQuarantined(test);
+                int maxAttempts = quarantinedTest ? 1 : retries + 1;
+                Throwable failure = null;
+                for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                    Map<String, Long> stepsBefore = timings.totals(test);
+                    long start = System.nanoTime();
+                    boolean healthy = true;
+                    pool.holdBackReleases();
+                    try {
+                        base.evaluate();
+                        record(test, attempt, Outcome.PASS, start, null, stepsBefore);
+                        if (attempt > 1) System.out.println("FLAKY: " + test + " passed on attempt " + attempt);
+                        return;
+                    } catch (AssumptionViolatedException e) {
+                        record(test, attempt, Outcome.SKIP, start, e, stepsBefore);
+                        throw e;
+                    } catch (Throwable t) {
+                        healthy = false;
+                        record(test, attempt, Outcome.FAIL, start, t, stepsBefore);
+                        failure = t;
+                    } finally {
+                        pool.settleHeldBack(healthy);
+                    }
+                }
+                if (quarantinedTest) {
+                    throw new AssumptionViolatedException("Quarantined flaky test failed: " + failure, failure);
+                }
+                throw failure;
+            }
+        };
+    }
+
+    private void record(String test, int attempt, Outcome outcome, long startNanos, Throwable error,
+                        Map<String, Long> stepsBefore) {
+        long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+        Map<String, Long> steps = new TreeMap<>();
+        timings.totals(test).forEach((step, total) -> {
+            long delta = total - stepsBefore.getOrDefault(step, 0L);
+            if (delta > 0) steps.put(step, delta / 1_000_000);
+        });
+        String message = error == null ? null : error.getClass().getSimpleName() + ": " + firstLine(error.getMessage());
+        append(new Attempt(test, run, attempt, outcome, durationMs, message, steps));
+    }
+
+    private static String firstLine(String message) {
+        return message == null ? "" : message.lines().findFirst().orElse("");
+    }
+
+    synchronized void append(Attempt attempt) {
+        attempts.add(attempt);
+        try {
+            if (history.getParent() != null) Files.createDirectories(history.getParent());
+            Files.writeString(history, json.toJson(toMap(attempt)).replace("\n", "") + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> toMap(Attempt attempt) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("test", attempt.test());
+        map.put("run", attempt.run());
+        map.put("attempt", attempt.attempt());
+        map.put("outcome", attempt.outcome().name());
+        map.put("durationMs", attempt.durationMs());
+        map.put("error", attempt.error());
+        map.put("stepsMs", attempt.stepsMs());
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Attempt parse(String line) {
+        Map<String, Object> map = json.toType(line, Json.MAP_TYPE);
+        Map<String, Long> steps = new TreeMap<>();
+        ((Map<String, Object>) map.getOrDefault("stepsMs", Map.of()))
+                .forEach((step, ms) -> steps.put(step, ((Number) ms).longValue()));
+        return new Attempt((String) map.get("test"), (String) map.get("run"), ((Number) map.get("attempt")).intValue(),
+                Outcome.valueOf((String) map.get("outcome")), ((Number) map.get("durationMs")).longValue(),
+                (String) map.get("error"), steps);
+    }
+
+    public synchronized List<Attempt> attempts() {
+        return List.copyOf(attempts);
+    }
+
+    /** Per test, the runs it appeared in (oldest first), each as the outcomes of its attempts. */
+    private Map<String, Map<String, List<Outcome>>> runsByTest() {
+        Map<String, Map<String, List<Outcome>>> runs = new TreeMap<>();
+        for (Attempt attempt : attempts) {
+            if (attempt.outcome() == Outcome.SKIP) continue;
+            runs.computeIfAbsent(attempt.test(), t -> new LinkedHashMap<>())
+                    .computeIfAbsent(attempt.run(), r -> new ArrayList<>())
+                    .add(attempt.outcome());
+        }
+        return runs;
+    }
+
+    /** Tests with a failure in several of their recent runs that still passed at least once in them. */
+    synchronized Set<String> chronicFlakers() {
+        Set<String> flakers = new LinkedHashSet<>();
+        runsByTest().forEach((test, runs) -> {
+            List<List<Outcome>> recent = new ArrayList<>(runs.values());
+            recent = recent.subList(Math.max(0, recent.size() - QUARANTINE_WINDOW), recent.size());
+            long failing = recent.stream().filter(r -> r.contains(Outcome.FAIL)).count();
+            boolean everPassed = recent.stream().anyMatch(r -> r.contains(Outcome.PASS));
+            if (failing >= QUARANTINE_FAILING_RUNS && everPassed) flakers.add(test);
+        });
+        return flakers;
+    }
+
+    /**
+     * Point-biserial correlation between failing and attempt duration, per test with both outcomes
+     * and enough attempts. Values near 1 mean the test fails when it runs slow: a timeout, not a bug.
+     */
+    public synchronized Map<String, Double> latencyCorrelation() {
+        Map<String, List<Attempt>> byTest = attempts.stream()
+                .filter(a -> a.outcome() != Outcome.SKIP)
+                .collect(Collectors.groupingBy(Attempt::test, TreeMap::new, Collectors.toList()));
+        Map<String, Double> correlation = new TreeMap<>();
+        byTest.forEach((test, list) -> {
+            long failures = list.stream().filter(a -> a.outcome() == Outcome.FAIL).count();
+            if (list.size() < CORRELATION_MIN_ATTEMPTS || failures == 0 || failures == list.size()) return;
+            correlation.put(test, pearson(list));
+        });
+        return correlation;
+    }
+
+    private static double pearson(List<Attempt> list) {
+        int n = list.size();
+        double meanX = list.stream().mapToLong(Attempt::durationMs).average().orElse(0);
+        double meanY = list.stream().filter(a -> a.outcome() == Outcome.FAIL).count() / (double) n;
+        double cov = 0, varX = 0, varY = 0;
+        for (Attempt a : list) {
+            double dx = a.durationMs() - meanX;
+            double dy = (a.outcome() == Outcome.FAIL ? 1 : 0) - meanY;
+            cov += dx * dy;
+            varX += dx * dx;
+            varY += dy * dy;
+        }
+        return varX == 0 || varY == 0 ? 0 : cov / Math.sqrt(varX * varY);
+    }
+
+    public synchronized String report() {
+        StringBuilder out = new StringBuilder("FlakeTracker: history=" + history + " attempts=" + attempts.size()
+                + " quarantined=" + quarantined + System.lineSeparator());
+        latencyCorrelation().forEach((test, r) -> {
+            if (r >= CORRELATION_THRESHOLD) {
+                out.append(String.format("  LATENCY-SENSITIVE %s: failures correlate with duration (r=%.2f)%n", test, r));
+            }
+        });
+        return out.toString();
+    }
+}
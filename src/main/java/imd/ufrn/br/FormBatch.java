@@ -0,0 +1,129 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.OutcomeWaiter.FieldError;
+import imd.ufrn.br.OutcomeWaiter.Outcome;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queues fill/clear/click/read operations against a form and runs them in a single
+ * {@code executeAsyncScript} round trip. Values are set through the native input setter and
+ * followed by input/change/blur events so framework bindings see them. When a click is queued and
+ * an outcome budget is set, the script also waits for the first outcome the click causes (see
+ * {@link OutcomeWaiter}) before collecting every touched field's value and visible error texts.
+ */
+public class FormBatch {
+    private static final String RUN = OutcomeWaiter.OUTCOME_FUNCTIONS
+            + "var ops = arguments[0], fields = arguments[1], ids = arguments[2], budget = arguments[3];"
+            + "var done = arguments[arguments.length - 1];"
+            // Toasts and errors on screen before the batch touched the form belong to an earlier attempt;
+            // ones the fills cause (say, an error rendered on blur) are already this batch's outcome
+            + "var stale = budget > 0 ? visibleOutcomes(fields) : null;"
+            + "function setValue(el, v) {"
+            + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+            + "  el.focus();"
+            + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, v);"
+            + "  el.dispatchEvent(new Event('input', { bubbles: true }));"
+            + "  el.dispatchEvent(new Event('change', { bubbles: true }));"
+            + "  el.blur(); }"
+            + "function button(text) { var all = document.querySelectorAll('button');"
+            + "  for (var i = 0; i < all.length; i++) if (all[i].textContent.indexOf(text) >= 0) return all[i]; return null; }"
+            + "function errorsOf(id) { var out = [], input = document.getElementById(id); if (!input) return out;"
+            + "  for (var n = input.nextElementSibling; n; n = n.nextElementSibling) {"
+            + "    var t = n.textContent.trim(); if (t && visible(n)) out.push(t); } return out; }"
+            // An expected error the page left in place through the submit still answers it
+            + "function lingering() { return fields.some(function (f) { return errorNodes(f).length > 0; }) ? 'FIELD_ERROR' : null; }"
+            + "function collect(outcome) { var values = {}, errors = {};"
+            + "  ids.forEach(function (id) { var el = document.getElementById(id);"
+            + "    values[id] = el ? el.value : null; errors[id] = errorsOf(id); });"
+            + "  return { outcome: outcome, values: values, errors: errors }; }"
+            + "var observer = null, timer = null, finished = false;"
+            + "function finish(outcome) { if (finished) return; finished = true;"
+            + "  if (observer) observer.disconnect(); clearTimeout(timer); done(collect(outcome)); }"
+            + "try {"
+            + "  for (var i = 0; i < ops.length; i++) { var op = ops[i];"
+            + "    if (op.op === 'fill' || op.op === 'clear') {"
+            + "      var el = document.getElementById(op.id); if (!el) throw new Error('No field #' + op.id);"
+            + "      setValue(el, op.op === 'fill' ? op.value : '');"
+            + "    } else if (op.op === 'click') {"
+            + "      var b = button(op.text); if (!b) throw new Error('No button ' + op.text);"
+            + "      if (budget > 0 && !observer) {"
+            + "        observer = new MutationObserver(function () { var r = outcomeOf(fields, stale); if (r) finish(r); });"
+            + "        observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "        timer = setTimeout(function () { finish(outcomeOf(fields, stale) || lingering() || 'NONE'); }, budget); }"
+            + "      b.click(); } }"
+            + "} catch (e) { finished = true; if (observer) observer.disconnect(); clearTimeout(timer); done({ error: String(e.message || e) }); return; }"
+            + "if (!observer) finish('NONE');";
+
+    private final WebDriver driver;
+    private final List<Map<String, String>> ops = new ArrayList<>();
+    private final Set<String> touched = new LinkedHashSet<>();
+    private FieldError[] expected = new FieldError[0];
+    private Duration budget = Duration.ZERO;
+
+    /** Values, visible error texts per touched field and the outcome of the queued click. */
+    public record Result(Outcome outcome, Map<String, String> values, Map<String, List<String>> errors) {
+        public boolean hasFieldError(String fieldId, String textPart) {
+            return errors.getOrDefault(fieldId, List.of()).stream().anyMatch(t -> t.contains(textPart));
+        }
+    }
+
+    private FormBatch(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static FormBatch on(WebDriver driver) {
+        return new FormBatch(driver);
+    }
+
+    public FormBatch fill(String fieldId, String value) {
+        ops.add(Map.of("op", "fill", "id", fieldId, "value", value));
+        touched.add(fieldId);
+        return this;
+    }
+
+    public FormBatch clear(String fieldId) {
+        ops.add(Map.of("op", "clear", "id", fieldId));
+        touched.add(fieldId);
+        return this;
+    }
+
+    /** Clicks the first button whose text contains {@code buttonText}. */
+    public FormBatch click(String buttonText) {
+        ops.add(Map.of("op", "click", "text", buttonText));
+        return this;
+    }
+
+    public FormBatch read(String fieldId) {
+        touched.add(fieldId);
+        return this;
+    }
+
+    /** After the first click, waits up to {@code budget} for a toast or one of the {@code expected} field errors. */
+    public FormBatch awaitOutcome(Duration budget, FieldError... expected) {
+        this.budget = budget;
+        this.expected = expected;
+        for (FieldError f : expected) touched.add(f.fieldId());
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Result run() {
+        OutcomeWaiter.withScriptTimeout(driver, budget.plusSeconds(2));
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(
+                RUN, ops, OutcomeWaiter.specs(expected), new ArrayList<>(touched), budget.toMillis());
+        if (raw.containsKey("error")) {
+            throw new IllegalStateException("Form batch failed: " + raw.get("error"));
+        }
+        return new Result(Outcome.valueOf(raw.get("outcome").toString()),
+                (Map<String, String>) raw.get("values"),
+                (Map<String, List<String>>) raw.get("errors"));
+    }
+}
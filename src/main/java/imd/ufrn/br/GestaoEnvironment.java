@@ -0,0 +1,40 @@
+package imd.ufrn.br;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Resolves which /gestao instance the suite talks to. {@code -DbaseUrl} or {@code BASE_URL} selects
+ * it; the value {@code local} starts a {@link FakeGestaoServer} in this JVM, delayed by
+ * {@code FAKE_LATENCY_MS} per request.
+ */
+public final class GestaoEnvironment {
+    public static final String REMOTE_BASE_URL = "https://toronto.imd.ufrn.br/gestao";
+    public static final String LOCAL = "local";
+
+    private static FakeGestaoServer localServer;
+
+    private GestaoEnvironment() {}
+
+    public static String baseUrl() {
+        String configured = System.getProperty("baseUrl", Credentials.env().get("BASE_URL"));
+        if (configured == null || configured.isBlank()) return REMOTE_BASE_URL;
+        if (configured.trim().equalsIgnoreCase(LOCAL)) return localServer().baseUrl();
+        return configured.trim().replaceAll("/+$", "");
+    }
+
+    static synchronized FakeGestaoServer localServer() {
+        if (localServer == null) {
+            String latency = System.getProperty("fakeLatencyMs", Credentials.env().get("FAKE_LATENCY_MS"));
+            try {
+                localServer = new FakeGestaoServer(0, latency == null ? 0 : Long.parseLong(latency.trim()),
+                        CredentialPool.shared().accounts()).start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start the local /gestao server", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(localServer::close, "fake-gestao-shutdown"));
+            System.out.println("Local /gestao server listening at " + localServer.baseUrl());
+        }
+        return localServer;
+    }
+}
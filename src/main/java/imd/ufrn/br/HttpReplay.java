@@ -0,0 +1,77 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.remote.http.HttpMethod;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Replays the requests a browser flow sent, captured with {@link NetworkCapture}, over plain
+ * HTTP. Each replay keeps its own cookie jar, so it carries one server-side session; redirects are
+ * not followed because the browser's follow-up requests are part of the recording. The recorded
+ * request headers go along (authorization, CSRF tokens, {@code X-Requested-With}), except
+ * {@code Cookie}, which the session supplies, and the headers the HTTP client sets itself.
+ */
+public class HttpReplay {
+    private static final Set<String> NOT_REPLAYED = Set.of("cookie", "host", "content-length", "connection",
+            "keep-alive", "proxy-connection", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "expect");
+
+    private final CookieManager cookies = new CookieManager();
+    private final HttpClient client;
+    private final Duration timeout;
+
+    public HttpReplay(Duration timeout) {
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Sends the recorded requests in order. Returns false as soon as a response falls in a different
+     * status class than the one the browser got, e.g. a 401 where the recording had a 200.
+     */
+    public boolean replay(List<NetworkCapture.Exchange> recording) throws IOException, InterruptedException {
+        for (NetworkCapture.Exchange recorded : recording) {
+            HttpResponse<Void> response = client.send(toRequest(recorded), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != recorded.status() / 100) return false;
+        }
+        return true;
+    }
+
+    /** Forgets the session, as the browser recording of a login started without one. */
+    public void resetSession() {
+        cookies.getCookieStore().removeAll();
+    }
+
+    private HttpRequest toRequest(NetworkCapture.Exchange recorded) {
+        String body = recorded.requestBody();
+        HttpRequest.BodyPublisher publisher = recorded.method() == HttpMethod.GET || body.isEmpty()
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(recorded.url()))
+                .timeout(timeout)
+                .method(recorded.method().name(), publisher);
+        recorded.requestHeaders().forEach((name, values) -> {
+            // HTTP/2 pseudo-headers (:authority, :path, ...) come from the URI
+            if (name.startsWith(":") || NOT_REPLAYED.contains(name.toLowerCase(Locale.ROOT))) return;
+            values.forEach(value -> request.header(name, value));
+        });
+        if (recorded.requestContentType() != null && recorded.requestHeaders().keySet().stream()
+                .noneMatch("Content-Type"::equalsIgnoreCase)) {
+            request.header("Content-Type", recorded.requestContentType());
+        }
+        return request.build();
+    }
+}
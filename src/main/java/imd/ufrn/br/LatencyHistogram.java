@@ -0,0 +1,102 @@
+package imd.ufrn.br;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram for long load runs, where keeping every sample like
+ * {@link StepTimings} does would grow without bound. Buckets are logarithmic with eight
+ * sub-buckets per power of two of microseconds, so percentiles are accurate to about 9%.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = 40 * SUB_BUCKETS;
+    /** Upper bounds, in milliseconds, of the buckets shown in reports. */
+    static final long[] REPORT_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    static int bucketOf(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        int index = (int) (Math.log(micros) / Math.log(2) * SUB_BUCKETS);
+        return Math.min(BUCKETS - 1, index);
+    }
+
+    /** Geometric middle of a bucket, in nanoseconds. */
+    static long valueOf(int bucket) {
+        return Math.round(Math.pow(2, (bucket + 0.5) / SUB_BUCKETS) * 1_000);
+    }
+
+    public void record(long nanos, boolean success) {
+        counts.incrementAndGet(bucketOf(nanos));
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        if (!success) failures.increment();
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        return total;
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    /** Nearest-rank percentile, reported as the middle of the bucket it falls in. */
+    public long percentile(double p) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(valueOf(i), maxNanos.get());
+        }
+        return maxNanos.get();
+    }
+
+    /** Sample counts per report bucket, keyed by "&lt;Nms" plus a final "&gt;=30000ms" overflow bucket. */
+    public Map<String, Long> buckets() {
+        Map<String, Long> shown = new LinkedHashMap<>();
+        long[] bucketed = new long[REPORT_BOUNDS_MS.length + 1];
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = counts.get(i);
+            if (n == 0) continue;
+            long ms = valueOf(i) / 1_000_000;
+            int slot = 0;
+            while (slot < REPORT_BOUNDS_MS.length && ms >= REPORT_BOUNDS_MS[slot]) slot++;
+            bucketed[slot] += n;
+        }
+        for (int i = 0; i < REPORT_BOUNDS_MS.length; i++) shown.put("<" + REPORT_BOUNDS_MS[i] + "ms", bucketed[i]);
+        shown.put(">=" + REPORT_BOUNDS_MS[REPORT_BOUNDS_MS.length - 1] + "ms", bucketed[REPORT_BOUNDS_MS.length]);
+        return shown;
+    }
+
+    /** count, failures, mean, p50, p90, p95, p99 and max in milliseconds, plus the bucket counts. */
+    public Map<String, Object> summary() {
+        long count = count();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", count);
+        stats.put("failures", failures());
+        stats.put("meanMs", millis(count == 0 ? 0 : totalNanos.sum() / count));
+        stats.put("p50Ms", millis(percentile(50)));
+        stats.put("p90Ms", millis(percentile(90)));
+        stats.put("p95Ms", millis(percentile(95)));
+        stats.put("p99Ms", millis(percentile(99)));
+        stats.put("maxMs", millis(maxNanos.get()));
+        stats.put("histogram", buckets());
+        return stats;
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+}
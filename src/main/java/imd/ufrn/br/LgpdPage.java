@@ -0,0 +1,49 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * /lgpd: the "Sobre os meus dados" summary table with the masked personal data.
+ */
+public class LgpdPage extends Page {
+    public static final String PATH = "/lgpd";
+
+    public static final By TITLE = By.xpath("//h3[contains(., 'Sobre os meus dados')]");
+    public static final By TABLE = By.cssSelector(".table.mt-2");
+    public static final By CPF_CELL = valueCell("CPF");
+    public static final By EMAIL_CELL = valueCell("E-mail");
+
+    public LgpdPage(WebDriver driver, WebDriverWait wait, String baseUrl, StepTimings timings) {
+        super(driver, wait, baseUrl, timings);
+    }
+
+    private static By valueCell(String label) {
+        return By.xpath(".//td[.//strong[contains(text(), '" + label + "')]]/following-sibling::td");
+    }
+
+    @Override
+    protected String path() {
+        return PATH;
+    }
+
+    @Override
+    protected By readyMarker() {
+        return TITLE;
+    }
+
+    public WebElement table() {
+        return element(TABLE);
+    }
+
+    /** Text of a value cell, falling back to textContent for cells hidden from getText(). */
+    public String cellText(By cell) {
+        return cache.with(TABLE, table -> {
+            WebElement el = table.findElement(cell);
+            String text = el.getText().trim();
+            return text.isEmpty() ? el.getAttribute("textContent").trim() : text;
+        });
+    }
+}
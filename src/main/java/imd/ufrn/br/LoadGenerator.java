@@ -0,0 +1,358 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.EditProfilePage.Field;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Load mode: runs the profile flows of {@code EditUserProfileTest} as scenarios for a number of
+ * concurrent virtual users, started evenly over a ramp-up, and reports throughput and a latency
+ * histogram per flow. Users either drive headless browsers ({@code browser}) or replay, over plain
+ * HTTP, the requests each flow sent when recorded once in a browser per account ({@code http}).
+ * Users share accounts round-robin when there are more users than accounts; email changes on one
+ * account are serialized since each one logs the account out.
+ *
+ * <p>Settings come from system properties or the matching {@code .env} variables: {@code loadMode}
+ * ({@code LOAD_MODE}), {@code loadUsers}, {@code loadRampSeconds}, {@code loadDurationSeconds},
+ * {@code loadFlows} (comma-separated {@link Flow} names) and {@code loadThreads} ({@code virtual} or
+ * {@code platform}, see {@link ScenarioOrchestrator}). The report is printed and written to
+ * {@code load-report.json} in {@code reportDir}.
+ */
+public class LoadGenerator {
+    public enum Flow { LOGIN, NAME_UPDATE, DOB_UPDATE, EMAIL_CHANGE, LGPD_VIEW }
+
+    public enum Mode { BROWSER, HTTP }
+
+    public record Config(String baseUrl, Mode mode, int users, Duration rampUp, Duration duration,
+                         List<Flow> flows, PerformanceProfile profile, ScenarioOrchestrator.ThreadModel threads) {
+        public static Config fromSettings() {
+            String flows = setting("loadFlows", "LOAD_FLOWS", "");
+            return new Config(
+                    GestaoEnvironment.baseUrl(),
+                    Mode.valueOf(setting("loadMode", "LOAD_MODE", "browser").toUpperCase(Locale.ROOT)),
+                    Integer.parseInt(setting("loadUsers", "LOAD_USERS", "2")),
+                    Duration.ofSeconds(Long.parseLong(setting("loadRampSeconds", "LOAD_RAMP_SECONDS", "10"))),
+                    Duration.ofSeconds(Long.parseLong(setting("loadDurationSeconds", "LOAD_DURATION_SECONDS", "60"))),
+                    flows.isBlank()
+                            ? List.of(Flow.values())
+                            : Arrays.stream(flows.split(",")).map(f -> Flow.valueOf(f.trim().toUpperCase(Locale.ROOT))).toList(),
+                    PerformanceProfile.defaultProfile(),
+                    ScenarioOrchestrator.ThreadModel.fromSettings("loadThreads", "LOAD_THREADS"));
+        }
+
+        private static String setting(String property, String variable, String fallback) {
+            String configured = System.getProperty(property, Credentials.env().get(variable));
+            return configured == null || configured.isBlank() ? fallback : configured.trim();
+        }
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+    private static final String NEW_DOB = "10/06/1990";
+    private static final int LOGGED_FAILURES = 5;
+
+    private final Config config;
+    private final List<Credentials> accounts;
+    private final DriverPool pool;
+    private final SessionCache sessions = new SessionCache(Duration.ofSeconds(5));
+    private final StepTimings timings = new StepTimings();
+    private final Map<Flow, LatencyHistogram> histograms = new EnumMap<>(Flow.class);
+    private final Map<String, ReentrantLock> emailChanges = new ConcurrentHashMap<>();
+    private final Map<String, Map<Flow, List<NetworkCapture.Exchange>>> recordings = new ConcurrentHashMap<>();
+
+    public LoadGenerator(Config config, List<Credentials> accounts, DriverPool pool) {
+        this.config = config;
+        this.accounts = accounts;
+        this.pool = pool;
+        for (Flow flow : Flow.values()) histograms.put(flow, new LatencyHistogram());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Config config = Config.fromSettings();
+        DriverPool pool = DriverPool.headlessChrome();
+        try {
+            LoadGenerator generator = new LoadGenerator(config, CredentialPool.shared().accounts(), pool);
+            Map<String, Object> report = generator.run();
+            System.out.println(format(report));
+            writeReport(StepTimings.reportDir(), report);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Runs the configured load and returns the report; blocks for the ramp-up plus the duration. */
+    public Map<String, Object> run() throws InterruptedException {
+        if (config.mode() == Mode.HTTP) record();
+
+        long start = System.nanoTime();
+        long end = start + config.rampUp().plus(config.duration()).toNanos();
+        // Users stop starting new flows at the end; the deadline leaves room to finish the last one
+        Duration deadline = config.rampUp().plus(config.duration()).plus(TIMEOUT.multipliedBy(4));
+        List<ScenarioOrchestrator.Scenario> users = new ArrayList<>();
+        for (int i = 0; i < config.users(); i++) {
+            int user = i;
+            long startAt = start + config.rampUp().toNanos() * user / config.users();
+            users.add(new ScenarioOrchestrator.Scenario("load-user-" + user, deadline,
+                    context -> virtualUser(context, user, startAt, end)));
+        }
+        ScenarioOrchestrator.Run run = new ScenarioOrchestrator(config.threads(), false).runAll(users);
+        run.results().stream()
+                .filter(r -> r.status() != ScenarioOrchestrator.Status.SUCCEEDED)
+                .forEach(r -> System.err.println("[load] " + r.name() + " " + r.status() + ": " + r.error()));
+        return report(System.nanoTime() - start, run.usage());
+    }
+
+    private void virtualUser(ScenarioOrchestrator.Context context, int user, long startAt, long end)
+            throws InterruptedException {
+        Credentials account = accounts.get(user % accounts.size());
+        long delay = startAt - System.nanoTime();
+        if (delay > 0) TimeUnit.NANOSECONDS.sleep(delay);
+        if (config.mode() == Mode.BROWSER) browserUser(context, user, account, end);
+        else httpUser(context, user, account, end);
+    }
+
+    // --- BROWSER USERS ---
+
+    private void browserUser(ScenarioOrchestrator.Context context, int user, Credentials account, long end) {
+        AtomicReference<WebDriver> session = new AtomicReference<>();
+        // Quitting the browser is what unblocks a user stuck in a driver call once it is cancelled
+        context.onCancel(() -> pool.discard(session.getAndSet(null)));
+        WebDriver driver = pool.checkout(config.profile());
+        session.set(driver);
+        try {
+            ProfileFlows flows = flowsFor(driver, account);
+            flows.ensureLoggedIn();
+            for (int n = user; System.nanoTime() < end && !context.isCancelled(); n++) {
+                Flow flow = config.flows().get(n % config.flows().size());
+                ProfileFlows current = flows;
+                if (measure(flow, () -> runInBrowser(flow, current, account))) continue;
+                try {
+                    flows.ensureLoggedIn();
+                } catch (WebDriverException e) {
+                    // The session is unusable; carry on with a fresh browser
+                    pool.discard(driver);
+                    driver = pool.checkout(config.profile());
+                    session.set(driver);
+                    flows = flowsFor(driver, account);
+                    flows.ensureLoggedIn();
+                }
+            }
+        } finally {
+            pool.release(session.getAndSet(null));
+        }
+    }
+
+    private ProfileFlows flowsFor(WebDriver driver, Credentials account) {
+        return new ProfileFlows(driver, config.profile(), config.baseUrl(), TIMEOUT, timings, sessions, account);
+    }
+
+    private boolean runInBrowser(Flow flow, ProfileFlows flows, Credentials account) {
+        switch (flow) {
+            case LOGIN -> {
+                flows.freshLogin();
+                return flows.isLoggedIn();
+            }
+            case NAME_UPDATE -> {
+                flows.openEdit();
+                return saved(flows.updateField(Field.NOME, "Load_" + UUID.randomUUID().toString().substring(0, 8)));
+            }
+            case DOB_UPDATE -> {
+                flows.openEdit();
+                return saved(flows.updateField(Field.DATA_NASCIMENTO, NEW_DOB));
+            }
+            case EMAIL_CHANGE -> {
+                return exclusiveEmailChange(account, () -> changeEmailAndLogin(flows, account));
+            }
+            case LGPD_VIEW -> {
+                return !flows.viewLgpd().cpf().isEmpty();
+            }
+            default -> throw new IllegalArgumentException("Unknown flow " + flow);
+        }
+    }
+
+    /** Email change, logout, login with the new email, then the original email is saved back. */
+    private boolean changeEmailAndLogin(ProfileFlows flows, Credentials account) {
+        flows.openEdit();
+        String original = flows.edit().field(Field.EMAIL).getAttribute("value");
+        String newEmail = "load_" + UUID.randomUUID().toString().substring(0, 6) + "@example.com";
+        try {
+            if (!saved(flows.updateField(Field.EMAIL, newEmail))) return false;
+            flows.logout();
+            flows.loginWithForm(new Credentials(newEmail, account.pass()));
+            return flows.isLoggedIn();
+        } finally {
+            flows.openEdit();
+            flows.updateField(Field.EMAIL, original);
+        }
+    }
+
+    private static boolean saved(NetworkCapture.Exchange save) {
+        return save != null && save.isSuccess();
+    }
+
+    // --- HTTP USERS ---
+
+    /** Runs every flow once in a browser per account in use and keeps the requests it sent. */
+    private void record() {
+        List<Flow> recorded = new ArrayList<>(config.flows());
+        if (!recorded.contains(Flow.LOGIN)) recorded.add(0, Flow.LOGIN);
+        for (Credentials account : accounts.subList(0, Math.min(config.users(), accounts.size()))) {
+            WebDriver driver = pool.checkout(config.profile());
+            try {
+                ProfileFlows flows = flowsFor(driver, account);
+                flows.ensureLoggedIn();
+                Map<Flow, List<NetworkCapture.Exchange>> byFlow = new EnumMap<>(Flow.class);
+                for (Flow flow : recorded) {
+                    try (NetworkCapture capture = NetworkCapture.start(driver, NetworkCapture.appRequestsTo(config.baseUrl()))) {
+                        if (!runInBrowser(flow, flows, account)) {
+                            throw new IllegalStateException("Recording " + flow + " failed for " + account);
+                        }
+                        byFlow.put(flow, capture.exchanges());
+                    }
+                }
+                recordings.put(account.user(), byFlow);
+            } finally {
+                pool.release(driver);
+            }
+        }
+    }
+
+    private void httpUser(ScenarioOrchestrator.Context context, int user, Credentials account, long end) {
+        Map<Flow, List<NetworkCapture.Exchange>> recorded = recordings.get(account.user());
+        HttpReplay replay = new HttpReplay(TIMEOUT);
+        if (!replayLogin(replay, recorded)) {
+            System.err.println("[load] user " + user + " could not log in over HTTP as " + account);
+            return;
+        }
+        for (int n = user; System.nanoTime() < end && !context.isCancelled(); n++) {
+            Flow flow = config.flows().get(n % config.flows().size());
+            boolean ok = measure(flow, () -> switch (flow) {
+                case LOGIN -> replayLogin(replay, recorded);
+                case EMAIL_CHANGE -> exclusiveEmailChange(account, () -> replay.replay(recorded.get(flow)));
+                default -> replay.replay(recorded.get(flow));
+            });
+            if (!ok) replayLogin(replay, recorded);
+        }
+    }
+
+    private static boolean replayLogin(HttpReplay replay, Map<Flow, List<NetworkCapture.Exchange>> recorded) {
+        replay.resetSession();
+        try {
+            return replay.replay(recorded.get(Flow.LOGIN));
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // --- MEASUREMENT ---
+
+    private <T> T exclusiveEmailChange(Credentials account, Callable<T> change) {
+        ReentrantLock lock = emailChanges.computeIfAbsent(account.user(), u -> new ReentrantLock());
+        lock.lock();
+        try {
+            return change.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean measure(Flow flow, Callable<Boolean> scenario) {
+        LatencyHistogram histogram = histograms.get(flow);
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = scenario.call();
+        } catch (Exception e) {
+            ok = false;
+            if (histogram.failures() < LOGGED_FAILURES) System.err.println("[load] " + flow + " failed: " + e);
+        }
+        histogram.record(System.nanoTime() - start, ok);
+        return ok;
+    }
+
+    private Map<String, Object> report(long elapsedNanos, ScenarioOrchestrator.ThreadUsage usage) {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("baseUrl", config.baseUrl());
+        report.put("mode", config.mode().name());
+        report.put("users", config.users());
+        report.put("rampUpSeconds", config.rampUp().toSeconds());
+        report.put("durationSeconds", config.duration().toSeconds());
+        report.put("elapsedSeconds", Math.round(seconds * 100) / 100.0);
+        Map<String, Object> threads = new LinkedHashMap<>();
+        threads.put("model", usage.model().name());
+        threads.put("baselinePlatformThreads", usage.baselineThreads());
+        threads.put("peakPlatformThreads", usage.peakThreads());
+        threads.put("schedulingThreads", usage.schedulingThreads());
+        threads.put("cpuMs", LatencyHistogram.millis(usage.cpuNanos()));
+        threads.put("utilization", Math.round(usage.utilization() * 1000) / 1000.0);
+        report.put("threads", threads);
+        Map<String, Object> flows = new LinkedHashMap<>();
+        for (Flow flow : config.flows()) {
+            LatencyHistogram histogram = histograms.get(flow);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("throughputPerSecond", Math.round(histogram.count() / seconds * 100) / 100.0);
+            stats.putAll(histogram.summary());
+            flows.put(flow.name(), stats);
+        }
+        report.put("flows", flows);
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    static String format(Map<String, Object> report) {
+        StringBuilder out = new StringBuilder(String.format("Load %s: %s users over %ss (ramp-up %ss) against %s%n",
+                report.get("mode"), report.get("users"), report.get("elapsedSeconds"),
+                report.get("rampUpSeconds"), report.get("baseUrl")));
+        out.append("  threads ").append(report.get("threads")).append(System.lineSeparator());
+        ((Map<String, Map<String, Object>>) report.get("flows")).forEach((flow, stats) -> {
+            out.append(String.format("  %-12s n=%s failed=%s %s/s mean=%sms p50=%sms p90=%sms p99=%sms max=%sms%n",
+                    flow, stats.get("count"), stats.get("failures"), stats.get("throughputPerSecond"),
+                    stats.get("meanMs"), stats.get("p50Ms"), stats.get("p90Ms"), stats.get("p99Ms"), stats.get("maxMs")));
+            Map<String, Long> buckets = (Map<String, Long>) stats.get("histogram");
+            long most = buckets.values().stream().mapToLong(Long::longValue).max().orElse(0);
+            buckets.forEach((bucket, n) -> {
+                if (n > 0) out.append(String.format("    %9s %-40s %d%n", bucket, "#".repeat((int) Math.max(1, 40 * n / most)), n));
+            });
+        });
+        return out.toString();
+    }
+
+    static void writeReport(Path dir, Map<String, Object> report) {
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("load-report.json"), new Json().toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,17 +1,259 @@
 package imd.ufrn.br;
 
-//TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
-// click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
+import org.junit.internal.TextListener;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Suite launcher. Runs a test class, by default {@code EditUserProfileTest}, through JUnitCore,
+ * optionally only one {@link Shard} of it, so a run can be split across CI machines:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.args="--baseUrl=local --browsers=2 --shard=1/3 --profile=FAST"
+ * mvn exec:java -Dexec.args="merge target/shard-1-of-3 target/shard-2-of-3 target/shard-3-of-3"
+ * </pre>
+ *
+ * Options: {@code --baseUrl}, {@code --browsers} (worker threads, one browser each),
+ * {@code --shard=index/total}, {@code --profile} ({@link PerformanceProfile} of the tests without
+ * {@link UseProfile}), {@code --reportFormat} ({@code json}, {@code csv} or {@code both}),
+ * {@code --reportDir} and {@code --suite}. Each falls back to its system property and then to its
+ * {@code .env} variable ({@code BASE_URL}, {@code WORKERS}, {@code SHARD}, {@code PERF_PROFILE},
+ * {@code REPORT_FORMAT}, {@code REPORT_DIR}). A shard writes its step timings and
+ * {@code suite-result.json} into {@code target/shard-<index>-of-<total>} unless a report directory
+ * is given, and keeps its upload fixtures and flake history apart by that directory, so shards can
+ * also run side by side on one machine. Shards split the test accounts too, so there must be at
+ * least one per shard. {@code merge} combines those directories into one report, with percentiles
+ * computed over the samples of all shards. The exit code is 0 when every test passed.
+ */
 public class Main {
+    static final String DEFAULT_SUITE = "imd.ufrn.br.EditUserProfileTest";
+    static final String RESULT_FILE = "suite-result.json";
+
+    private static final Set<String> OPTIONS = Set.of("baseUrl", "browsers", "shard", "profile", "reportFormat", "reportDir", "suite");
+    private static final int TOP_STEPS = 10;
+
     public static void main(String[] args) {
-        //TIP Press <shortcut actionId="ShowIntentionActions"/> with your caret at the highlighted text
-        // to see how IntelliJ IDEA suggests fixing it.
-        System.out.printf("Hello and welcome!");
+        // Exits even on success: a local fake server or a leftover driver thread would keep the JVM alive
+        System.exit(run(args));
+    }
 
-        for (int i = 1; i <= 5; i++) {
-            //TIP Press <shortcut actionId="Debug"/> to start debugging your code. We have set one <icon src="AllIcons.Debugger.Db_set_breakpoint"/> breakpoint
-            // for you, but you can always add more by pressing <shortcut actionId="ToggleLineBreakpoint"/>.
-            System.out.println("i = " + i);
+    static int run(String... args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> positional = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--")) {
+                    positional.add(args[i]);
+                    continue;
+                }
+                String name = args[i].substring(2);
+                String value;
+                int eq = name.indexOf('=');
+                if (eq >= 0) {
+                    value = name.substring(eq + 1);
+                    name = name.substring(0, eq);
+                } else if (i + 1 < args.length) {
+                    value = args[++i];
+                } else {
+                    throw new IllegalArgumentException("Missing value for --" + name);
+                }
+                if (!OPTIONS.contains(name)) throw new IllegalArgumentException("Unknown option --" + name);
+                options.put(name, value);
+            }
+            String format = setting(options, "reportFormat", "REPORT_FORMAT", "both").toLowerCase(Locale.ROOT);
+            if (!Set.of("json", "csv", "both").contains(format)) {
+                throw new IllegalArgumentException("reportFormat must be json, csv or both, got " + format);
+            }
+            if (!positional.isEmpty() && positional.get(0).equals("merge")) {
+                if (positional.size() < 2) throw new IllegalArgumentException("merge needs the shard report directories");
+                Path out = Path.of(setting(options, "reportDir", "REPORT_DIR", "target"));
+                return merge(positional.subList(1, positional.size()).stream().map(Path::of).toList(), out, format);
+            }
+            if (!positional.isEmpty()) throw new IllegalArgumentException("Unexpected argument " + positional.get(0));
+            return runSuite(options, format);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: Main [--baseUrl=URL|local] [--browsers=N] [--shard=I/N] [--profile=FULL|FAST|NO_WAIT]"
+                    + " [--reportFormat=json|csv|both] [--reportDir=DIR] [--suite=CLASS]");
+            System.err.println("       Main merge [--reportDir=DIR] [--reportFormat=json|csv|both] SHARD_DIR...");
+            return 2;
         }
     }
-}
\ No newline at end of file
+
+    /** CLI option, then system property, then {@code .env} variable. */
+    private static String setting(Map<String, String> options, String name, String variable, String fallback) {
+        String value = options.getOrDefault(name, System.getProperty(name, Credentials.env().get(variable)));
+        return value == null || value.isBlank() ? fallback : value.trim();
+    }
+
+    private static int runSuite(Map<String, String> options, String format) {
+        Shard shard = Shard.parse(setting(options, "shard", "SHARD", "1/1"));
+        Path reportDir = Path.of(setting(options, "reportDir", "REPORT_DIR",
+                shard.total() == 1 ? "target" : "target/shard-" + shard.index() + "-of-" + shard.total()));
+        // The harness reads these itself; the options only override them for this run
+        if (options.containsKey("baseUrl")) System.setProperty("baseUrl", options.get("baseUrl"));
+        if (options.containsKey("browsers")) System.setProperty("workers", String.valueOf(Integer.parseInt(options.get("browsers"))));
+        if (options.containsKey("profile")) {
+            System.setProperty("perfProfile", PerformanceProfile.valueOf(options.get("profile").toUpperCase(Locale.ROOT)).name());
+        }
+        System.setProperty("shard", shard.toString());
+        System.setProperty("reportFormat", format);
+        System.setProperty("reportDir", reportDir.toString());
+
+        String suiteName = setting(options, "suite", "SUITE", DEFAULT_SUITE);
+        Class<?> suite;
+        try {
+            suite = Class.forName(suiteName.contains(".") ? suiteName : Main.class.getPackageName() + "." + suiteName);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Test class " + suiteName + " not found; run with the test classpath"
+                    + " (mvn test-compile exec:java)");
+        }
+
+        Set<String> tests = new TreeSet<>(shard.select(suite));
+        System.out.println("Running " + suite.getSimpleName() + " shard " + shard + ": " + tests.size() + " tests " + tests);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("suite", suite.getName());
+        result.put("shard", shard.toString());
+        result.put("tests", List.copyOf(tests));
+        if (tests.isEmpty()) {
+            result.putAll(counts(0, 0, 0, 0, 0, List.of()));
+            writeResult(reportDir, result);
+            return 0;
+        }
+
+        JUnitCore junit = new JUnitCore();
+        junit.addListener(new TextListener(System.out));
+        Result run = junit.run(Request.aClass(suite).filterWith(shard.filter(suite)));
+        List<Map<String, Object>> failed = new ArrayList<>();
+        for (Failure failure : run.getFailures()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("test", failure.getDescription().getDisplayName());
+            entry.put("message", String.valueOf(failure.getMessage()));
+            failed.add(entry);
+        }
+        result.putAll(counts(run.getRunCount(), run.getFailureCount(), run.getAssumptionFailureCount(),
+                run.getIgnoreCount(), run.getRunTime(), failed));
+        writeResult(reportDir, result);
+        System.out.println("Shard " + shard + " report written to " + reportDir.toAbsolutePath());
+        return run.wasSuccessful() ? 0 : 1;
+    }
+
+    private static Map<String, Object> counts(long run, long failures, long skipped, long ignored, long runTimeMs,
+                                              List<Map<String, Object>> failed) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("run", run);
+        counts.put("failures", failures);
+        counts.put("skipped", skipped);
+        counts.put("ignored", ignored);
+        counts.put("runTimeMs", runTimeMs);
+        counts.put("failed", failed);
+        return counts;
+    }
+
+    private static void writeResult(Path dir, Map<String, Object> result) {
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve(RESULT_FILE), new Json().toJson(result), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Merges shard report directories into {@code out}: step timings over all samples, summed test
+     * counts and the failures of every shard. Fails when a shard is missing or failed.
+     */
+    @SuppressWarnings("unchecked")
+    static int merge(List<Path> shardDirs, Path out, String format) {
+        StepTimings timings = new StepTimings();
+        Map<String, Object> merged = new LinkedHashMap<>();
+        List<String> shards = new ArrayList<>();
+        List<Map<String, Object>> failed = new ArrayList<>();
+        long run = 0, failures = 0, skipped = 0, ignored = 0, wallMs = 0, totalMs = 0;
+        Set<Integer> indexes = new TreeSet<>();
+        int total = 0;
+        try {
+            for (Path dir : shardDirs) {
+                Path samples = dir.resolve(StepTimings.SAMPLES_FILE);
+                if (Files.exists(samples)) timings.readSamples(samples);
+                Path resultFile = dir.resolve(RESULT_FILE);
+                if (!Files.exists(resultFile)) throw new IllegalArgumentException("No " + RESULT_FILE + " in " + dir);
+                Map<String, Object> result = new Json().toType(Files.readString(resultFile, StandardCharsets.UTF_8), Json.MAP_TYPE);
+                Shard shard = Shard.parse((String) result.get("shard"));
+                if (total != 0 && shard.total() != total) {
+                    throw new IllegalArgumentException("Shards of different splits: " + shards + " and " + shard);
+                }
+                total = shard.total();
+                indexes.add(shard.index());
+                shards.add(shard.toString());
+                merged.putIfAbsent("suite", result.get("suite"));
+                run += ((Number) result.get("run")).longValue();
+                failures += ((Number) result.get("failures")).longValue();
+                skipped += ((Number) result.get("skipped")).longValue();
+                ignored += ((Number) result.get("ignored")).longValue();
+                long shardMs = ((Number) result.get("runTimeMs")).longValue();
+                wallMs = Math.max(wallMs, shardMs);
+                totalMs += shardMs;
+                failed.addAll((List<Map<String, Object>>) result.get("failed"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 1; i <= total; i++) {
+            if (!indexes.contains(i)) missing.add(i);
+        }
+        merged.put("shards", shards);
+        merged.put("missingShards", missing);
+        merged.put("generatedAt", Instant.now().toString());
+        merged.putAll(counts(run, failures, skipped, ignored, wallMs, failed));
+        merged.put("shardTimeMs", totalMs);
+        writeResult(out, merged);
+        timings.writeReport(out, format);
+        timings.writeSamples(out);
+
+        System.out.printf("Merged %d shards of %s: run=%d failures=%d skipped=%d ignored=%d wall=%dms (sum of shards %dms)%n",
+                shards.size(), merged.get("suite"), run, failures, skipped, ignored, wallMs, totalMs);
+        if (!missing.isEmpty()) System.out.println("Missing shards " + missing + " of " + total);
+        failed.forEach(f -> System.out.println("  FAILED " + f.get("test") + ": " + f.get("message")));
+        System.out.print(slowestSteps(timings));
+        System.out.println("Merged report written to " + out.toAbsolutePath());
+        return failures == 0 && missing.isEmpty() ? 0 : 1;
+    }
+
+    /** The steps with the largest total time summed over every test. */
+    static String slowestSteps(StepTimings timings) {
+        Map<String, Double> totals = new TreeMap<>();
+        Map<String, Long> counts = new TreeMap<>();
+        timings.summary().values().forEach(steps -> steps.forEach((step, stats) -> {
+            totals.merge(step, (Double) stats.get("totalMs"), Double::sum);
+            counts.merge(step, ((Number) stats.get("count")).longValue(), Long::sum);
+        }));
+        StringBuilder out = new StringBuilder("Slowest steps across shards:" + System.lineSeparator());
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(TOP_STEPS)
+                .forEach(e -> out.append(String.format("  %-40s total=%.1fms n=%d%n", e.getKey(), e.getValue(), counts.get(e.getKey()))));
+        return out.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package imd.ufrn.br;
+
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Navigation times of one run, per step name (e.g. {@code navigate:edit}) and
+ * {@link PerformanceProfile}. Profiles are only compared on the same step, since tests on different
+ * profiles visit different pages.
+ */
+public class NavigationTimings {
+    private record Total(AtomicLong count, AtomicLong nanos) {
+        double averageMs() {
+            long n = count.get();
+            return n == 0 ? 0 : nanos.get() / 1e6 / n;
+        }
+    }
+
+    private final ConcurrentMap<String, ConcurrentMap<PerformanceProfile, Total>> steps = new ConcurrentHashMap<>();
+
+    public void record(PerformanceProfile profile, String step, long nanos) {
+        Total total = steps.computeIfAbsent(step, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(profile, p -> new Total(new AtomicLong(), new AtomicLong()));
+        total.count().incrementAndGet();
+        total.nanos().addAndGet(nanos);
+    }
+
+    /** Per step, the average per profile and the time saved against FULL on that same step. */
+    public String report() {
+        StringBuilder report = new StringBuilder("Navigation by profile:");
+        new TreeMap<>(steps).forEach((step, byProfile) -> {
+            report.append(' ').append(step);
+            Total full = byProfile.get(PerformanceProfile.FULL);
+            for (PerformanceProfile p : PerformanceProfile.values()) {
+                Total total = byProfile.get(p);
+                if (total == null) continue;
+                report.append(String.format(" %s avg=%.1fms n=%d", p, total.averageMs(), total.count().get()));
+                if (p != PerformanceProfile.FULL && full != null) {
+                    double savedMs = (full.averageMs() - total.averageMs()) * total.count().get();
+                    report.append(String.format(" (saved ~%.0fms vs FULL)", savedMs));
+                }
+            }
+            report.append(';');
+        });
+        return report.toString();
+    }
+}
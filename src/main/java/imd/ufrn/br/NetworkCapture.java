@@ -0,0 +1,119 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Records request/response pairs through the Chrome DevTools Protocol while it is open, so a test
+ * can assert on what the application sent and what the server answered instead of reloading the
+ * page to scrape the result. Keep it scoped to the action under test: every intercepted request
+ * pays an extra CDP round trip.
+ */
+public class NetworkCapture implements AutoCloseable {
+    public record Exchange(HttpMethod method, String url, String requestContentType, String requestBody,
+                           Map<String, List<String>> requestHeaders, int status, String responseBody) {
+        public Exchange(HttpMethod method, String url, String requestContentType, String requestBody,
+                        int status, String responseBody) {
+            this(method, url, requestContentType, requestBody, Map.of(), status, responseBody);
+        }
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        /** Case-insensitive check that the request payload carried {@code value}. */
+        public boolean sent(String value) {
+            return requestBody.toLowerCase(Locale.ROOT).contains(value.toLowerCase(Locale.ROOT));
+        }
+
+        /** Case-insensitive check that the response payload echoes {@code value}. */
+        public boolean returned(String value) {
+            return responseBody.toLowerCase(Locale.ROOT).contains(value.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private final NetworkInterceptor interceptor;
+    private final BlockingQueue<Exchange> pending = new LinkedBlockingQueue<>();
+    private final List<Exchange> all = new ArrayList<>();
+
+    private NetworkCapture(WebDriver driver, Predicate<HttpRequest> matcher) {
+        Filter recorder = next -> req -> {
+            HttpResponse res = next.execute(req);
+            if (matcher.test(req)) {
+                byte[] body = Contents.bytes(res.getContent());
+                res.setContent(Contents.bytes(body));
+                Exchange exchange = new Exchange(req.getMethod(), req.getUri(), req.getHeader("Content-Type"), Contents.string(req),
+                        headers(req), res.getStatus(), new String(body, StandardCharsets.UTF_8));
+                synchronized (all) {
+                    all.add(exchange);
+                }
+                pending.add(exchange);
+            }
+            return res;
+        };
+        this.interceptor = new NetworkInterceptor(driver, recorder);
+    }
+
+    private static Map<String, List<String>> headers(HttpRequest req) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : req.getHeaderNames()) {
+            List<String> values = new ArrayList<>();
+            req.getHeaders(name).forEach(values::add);
+            headers.put(name, List.copyOf(values));
+        }
+        return headers;
+    }
+
+    /** Starts capturing requests accepted by {@code matcher}; the driver must support DevTools. */
+    public static NetworkCapture start(WebDriver driver, Predicate<HttpRequest> matcher) {
+        return new NetworkCapture(driver, matcher);
+    }
+
+    /** Any state-changing request to {@code baseUrl}, i.e. the form saves of the application. */
+    public static Predicate<HttpRequest> writesTo(String baseUrl) {
+        return req -> req.getMethod() != HttpMethod.GET && req.getUri().startsWith(baseUrl);
+    }
+
+    /** Every page and API request under {@code baseUrl}, leaving out static assets; what a flow replay needs. */
+    public static Predicate<HttpRequest> appRequestsTo(String baseUrl) {
+        return req -> req.getUri().startsWith(baseUrl) && !req.getUri().startsWith(baseUrl + "/static/");
+    }
+
+    /** Waits for the next completed exchange, or returns null when none arrives in time. */
+    public Exchange next(Duration timeout) {
+        try {
+            return pending.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public List<Exchange> exchanges() {
+        synchronized (all) {
+            return List.copyOf(all);
+        }
+    }
+
+    @Override
+    public void close() {
+        interceptor.close();
+    }
+}
@@ -0,0 +1,164 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Waits for whichever outcome of a form action shows up first (success toast, error toast or an
+ * inline field error) using a MutationObserver inside the page. The time budget only runs out when
+ * nothing at all happens, so "expect no success" checks stop paying the full timeout.
+ */
+public final class OutcomeWaiter {
+    public enum Outcome { SUCCESS_TOAST, ERROR_TOAST, FIELD_ERROR, NONE }
+
+    /** An inline error next to the input with {@code fieldId}; a null text matches any error node. */
+    public record FieldError(String fieldId, String text) {
+        public static FieldError any(String fieldId) {
+            return new FieldError(fieldId, null);
+        }
+    }
+
+    static final String SUCCESS_TOAST = ".p-toast-message-success";
+    static final String ERROR_TOAST = ".p-toast-message-error";
+
+    private static final String VISIBLE =
+            "function visible(el) { return !!(el && (el.offsetWidth || el.offsetHeight || el.getClientRects().length)); }";
+
+    /**
+     * Page-side helpers shared with {@link FormBatch}; {@code outcomeOf(fields, stale)} returns an
+     * Outcome name or null. {@code stale} is null or the result of {@code visibleOutcomes(fields)}
+     * taken before an action: those nodes are ignored while they stay visible with the same text, so
+     * a toast or field error left from an earlier attempt is not taken for the action's outcome.
+     */
+    static final String OUTCOME_FUNCTIONS = VISIBLE
+            + "var TOASTS = '" + SUCCESS_TOAST + ", " + ERROR_TOAST + "';"
+            + "function errorNodes(f) { var out = [], input = document.getElementById(f.id); if (!input) return out;"
+            + "  for (var n = input.nextElementSibling; n; n = n.nextElementSibling) {"
+            + "    if (!visible(n)) continue;"
+            + "    if (f.text == null ? /error|invalid/i.test(n.className) && n.textContent.trim() : n.textContent.indexOf(f.text) >= 0) out.push(n);"
+            + "  } return out; }"
+            + "function visibleOutcomes(fields) { var out = [], toasts = document.querySelectorAll(TOASTS);"
+            + "  for (var i = 0; i < toasts.length; i++) if (visible(toasts[i])) out.push(toasts[i]);"
+            + "  fields.forEach(function (f) { out = out.concat(errorNodes(f)); });"
+            + "  return out.map(function (n) { return { node: n, text: n.textContent }; }); }"
+            + "function isStale(n, stale) { if (!stale) return false;"
+            // A node that was hidden, removed or re-rendered since counts as new from then on
+            + "  for (var i = stale.length - 1; i >= 0; i--) { var s = stale[i];"
+            + "    if (!s.node.isConnected || !visible(s.node) || s.node.textContent !== s.text) stale.splice(i, 1); }"
+            + "  for (var j = 0; j < stale.length; j++) if (stale[j].node === n) return true; return false; }"
+            + "function anyVisible(sel, stale) { var els = document.querySelectorAll(sel);"
+            + "  for (var i = 0; i < els.length; i++) if (visible(els[i]) && !isStale(els[i], stale)) return true; return false; }"
+            + "function fieldError(f, stale) { return errorNodes(f).some(function (n) { return !isStale(n, stale); }); }"
+            + "function outcomeOf(fields, stale) {"
+            + "  if (anyVisible('" + SUCCESS_TOAST + "', stale)) return 'SUCCESS_TOAST';"
+            + "  if (anyVisible('" + ERROR_TOAST + "', stale)) return 'ERROR_TOAST';"
+            + "  for (var i = 0; i < fields.length; i++) if (fieldError(fields[i], stale)) return 'FIELD_ERROR';"
+            + "  return null; }";
+
+    private static final String AWAIT_OUTCOME = OUTCOME_FUNCTIONS
+            + "var fields = arguments[0], budget = arguments[1], done = arguments[arguments.length - 1];"
+            + "function check() { return outcomeOf(fields, null); }"
+            + "var first = check(); if (first) { done(first); return; }"
+            + "var timer, observer = new MutationObserver(function () {"
+            + "  var r = check(); if (r) { observer.disconnect(); clearTimeout(timer); done(r); } });"
+            + "observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "timer = setTimeout(function () { observer.disconnect(); done(check() || 'NONE'); }, budget);";
+
+    private static final String AWAIT_ATTRIBUTE_CHANGE = VISIBLE
+            + "var sel = arguments[0], attr = arguments[1], old = arguments[2], budget = arguments[3];"
+            + "var done = arguments[arguments.length - 1];"
+            + "function current() { var el = document.querySelector(sel); return el ? el.getAttribute(attr) : null; }"
+            + "if (current() !== old) { done(current()); return; }"
+            + "var timer, observer = new MutationObserver(function () {"
+            + "  var v = current(); if (v !== old) { observer.disconnect(); clearTimeout(timer); done(v); } });"
+            + "observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, attributeFilter: [attr] });"
+            + "timer = setTimeout(function () { observer.disconnect(); done(current()); }, budget);";
+
+    private static final Duration SCRIPT_MARGIN = Duration.ofSeconds(2);
+
+    private OutcomeWaiter() {}
+
+    /**
+     * Any visible outcome counts, including one already on screen when the wait starts; a
+     * {@link FormBatch} click only counts what appeared or changed after the batch started, plus an
+     * expected field error that is still shown when its budget runs out.
+     */
+    public static Outcome await(WebDriver driver, Duration budget, FieldError... fields) {
+        List<Map<String, String>> specs = specs(fields);
+        long deadline = System.nanoTime() + budget.toNanos();
+        try {
+            withScriptTimeout(driver, budget.plus(SCRIPT_MARGIN));
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_OUTCOME, specs, budget.toMillis());
+            return Outcome.valueOf(String.valueOf(result));
+        } catch (WebDriverException e) {
+            // The page navigated away mid-script; finish the remaining budget by polling
+            Duration left = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+            return poll(driver, left, fields);
+        }
+    }
+
+    /** Waits until the attribute of the first element matching {@code css} differs from {@code oldValue}. */
+    public static String awaitAttributeChange(WebDriver driver, String css, String attribute, String oldValue, Duration budget) {
+        withScriptTimeout(driver, budget.plus(SCRIPT_MARGIN));
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                AWAIT_ATTRIBUTE_CHANGE, css, attribute, oldValue, budget.toMillis());
+        return result == null ? null : result.toString();
+    }
+
+    static List<Map<String, String>> specs(FieldError... fields) {
+        List<Map<String, String>> specs = new ArrayList<>();
+        for (FieldError f : fields) {
+            Map<String, String> spec = new HashMap<>();
+            spec.put("id", f.fieldId());
+            spec.put("text", f.text());
+            specs.add(spec);
+        }
+        return specs;
+    }
+
+    static void withScriptTimeout(WebDriver driver, Duration timeout) {
+        if (driver.manage().timeouts().getScriptTimeout().compareTo(timeout) < 0) {
+            driver.manage().timeouts().scriptTimeout(timeout);
+        }
+    }
+
+    private static Outcome poll(WebDriver driver, Duration budget, FieldError... fields) {
+        try {
+            return new WebDriverWait(driver, budget, Duration.ofMillis(100)).until(d -> {
+                if (anyDisplayed(d, By.cssSelector(SUCCESS_TOAST))) return Outcome.SUCCESS_TOAST;
+                if (anyDisplayed(d, By.cssSelector(ERROR_TOAST))) return Outcome.ERROR_TOAST;
+                for (FieldError f : fields) {
+                    String base = "//*[@id='" + f.fieldId() + "']/following-sibling::*";
+                    By sibling = f.text() == null
+                            ? By.xpath(base + "[contains(@class, 'error') or contains(@class, 'invalid')]")
+                            : By.xpath(base + "[contains(., '" + f.text() + "')]");
+                    if (anyDisplayed(d, sibling)) return Outcome.FIELD_ERROR;
+                }
+                return null;
+            });
+        } catch (TimeoutException e) {
+            return Outcome.NONE;
+        }
+    }
+
+    private static boolean anyDisplayed(WebDriver driver, By locator) {
+        for (WebElement el : driver.findElements(locator)) {
+            try {
+                if (el.isDisplayed()) return true;
+            } catch (WebDriverException ignored) {
+            }
+        }
+        return false;
+    }
+}
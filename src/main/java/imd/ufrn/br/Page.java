@@ -0,0 +1,63 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * Base of the /gestao page objects: a path under the base URL, an element that signals the page
+ * is ready, and a per-page {@link ElementCache} that is cleared on every navigation.
+ */
+public abstract class Page {
+    protected final WebDriver driver;
+    protected final WebDriverWait wait;
+    protected final String baseUrl;
+    protected final StepTimings timings;
+    protected final ElementCache cache;
+
+    protected Page(WebDriver driver, WebDriverWait wait, String baseUrl, StepTimings timings) {
+        this.driver = driver;
+        this.wait = wait;
+        this.baseUrl = baseUrl;
+        this.timings = timings;
+        this.cache = new ElementCache(driver);
+    }
+
+    protected abstract String path();
+
+    protected abstract By readyMarker();
+
+    public String url() {
+        return baseUrl + path();
+    }
+
+    /** Loads the page unless the browser is already on it, and waits for the ready marker. */
+    public void open() {
+        if (!driver.getCurrentUrl().contains(path()) || driver.findElements(readyMarker()).isEmpty()) {
+            cache.invalidate();
+            driver.get(url());
+        }
+        wait.until(ExpectedConditions.visibilityOfElementLocated(readyMarker()));
+    }
+
+    public void invalidate() {
+        cache.invalidate();
+    }
+
+    /** A cached element that is looked up again if it goes stale while the caller holds it. */
+    public WebElement element(By locator) {
+        return cache.element(locator);
+    }
+
+    public void jsClick(By locator) {
+        timings.time("jsClick", () -> cache.with(locator,
+                el -> ((JavascriptExecutor) driver).executeScript("arguments[0].click();", el)));
+    }
+
+    public String cacheStats() {
+        return cache.stats();
+    }
+}
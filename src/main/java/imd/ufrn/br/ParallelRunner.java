@@ -0,0 +1,204 @@
+package imd.ufrn.br;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.Ignore;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+import org.junit.runners.model.Statement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Runs the test methods of a class on a pool of worker threads. The worker count comes from the
+ * {@code workers} system property or {@code WORKERS} variable and defaults to the number of
+ * configured test accounts, capped at the core count. Methods annotated with {@link Exclusive}
+ * wait for every other test to finish and block new ones while they run.
+ *
+ * <p>Methods are ordered by {@link DependencyGraph}. A test waits for its {@link DependsOn}
+ * dependencies and is skipped, as a failed assumption, when one of them did not pass. The first
+ * test runs its {@code @Before} (the login) alone; once any {@code @Before} fails, the tests that
+ * have not started yet are skipped instead of each repeating the same timeout. Set the
+ * {@code failFast} system property to {@code false} to run them all regardless.
+ */
+public final class ParallelRunner extends BlockJUnit4ClassRunner {
+    private final ReadWriteLock exclusivity = new ReentrantReadWriteLock(true);
+    private final boolean failFast = !"false".equals(System.getProperty("failFast"));
+    private final Map<String, CompletableFuture<Boolean>> passed = new ConcurrentHashMap<>();
+    private final AtomicBoolean canaryClaimed = new AtomicBoolean();
+    private final CountDownLatch loginChecked = new CountDownLatch(1);
+    private volatile Set<String> selected;
+    private volatile String setupFailure;
+    private final ThreadLocal<String> pendingSetupFailure = new ThreadLocal<>();
+
+    public ParallelRunner(Class<?> testClass) throws InitializationError {
+        super(testClass);
+        setScheduler(new WorkerScheduler(workers()));
+    }
+
+    static int workers() {
+        String configured = System.getProperty("workers", Credentials.env().get("WORKERS"));
+        if (configured != null) return Math.max(1, Integer.parseInt(configured.trim()));
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), CredentialPool.shared().size()));
+    }
+
+    @Override
+    protected void collectInitializationErrors(List<Throwable> errors) {
+        super.collectInitializationErrors(errors);
+        if (errors.isEmpty()) errors.addAll(DependencyGraph.validate(super.computeTestMethods()));
+    }
+
+    @Override
+    protected List<FrameworkMethod> computeTestMethods() {
+        return DependencyGraph.order(super.computeTestMethods());
+    }
+
+    @Override
+    public void filter(Filter filter) throws NoTestsRemainException {
+        super.filter(filter);
+        // Dependencies left out of the run cannot be waited for; they are assumed to pass
+        selected = computeTestMethods().stream()
+                .filter(m -> filter.shouldRun(describeChild(m)))
+                .map(FrameworkMethod::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected void runChild(FrameworkMethod method, RunNotifier notifier) {
+        if (method.getAnnotation(Ignore.class) != null) outcome(method.getName()).complete(false);
+        super.runChild(method, notifier);
+    }
+
+    @Override
+    protected Statement methodBlock(FrameworkMethod method) {
+        Statement block = super.methodBlock(method);
+        Lock lock = method.getAnnotation(Exclusive.class) != null
+                ? exclusivity.writeLock()
+                : exclusivity.readLock();
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                boolean ok = false;
+                try {
+                    awaitUpstream(method);
+                    lock.lock();
+                    try {
+                        block.evaluate();
+                    } finally {
+                        lock.unlock();
+                    }
+                    ok = true;
+                } catch (Throwable t) {
+                    // Only a setUp failure that survived any retry makes the rest of the run pointless
+                    String failedSetup = pendingSetupFailure.get();
+                    if (failFast && failedSetup != null && !(t instanceof AssumptionViolatedException) && setupFailure == null) {
+                        setupFailure = failedSetup;
+                    }
+                    throw t;
+                } finally {
+                    pendingSetupFailure.remove();
+                    loginChecked.countDown();
+                    outcome(method.getName()).complete(ok);
+                }
+            }
+        };
+    }
+
+    @Override
+    protected Statement withBefores(FrameworkMethod method, Object target, Statement statement) {
+        AtomicBoolean reachedTest = new AtomicBoolean();
+        Statement befores = super.withBefores(method, target, new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                reachedTest.set(true);
+                loginChecked.countDown();
+                statement.evaluate();
+            }
+        });
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                reachedTest.set(false);
+                try {
+                    befores.evaluate();
+                } catch (Throwable t) {
+                    pendingSetupFailure.set(reachedTest.get() ? null : method.getName() + ": " + t);
+                    throw t;
+                }
+            }
+        };
+    }
+
+    private CompletableFuture<Boolean> outcome(String method) {
+        return passed.computeIfAbsent(method, m -> new CompletableFuture<>());
+    }
+
+    /** The implicit login dependency first, then the declared ones; skips the test when one did not pass. */
+    private void awaitUpstream(FrameworkMethod method) throws InterruptedException {
+        List<String> dependencies = DependencyGraph.dependencies(method).stream()
+                .filter(d -> selected == null || selected.contains(d))
+                .toList();
+        // Only a test without dependencies can go first, or it would wait on one that waits on it
+        if (!dependencies.isEmpty() || !canaryClaimed.compareAndSet(false, true)) loginChecked.await();
+        if (setupFailure != null) {
+            throw new AssumptionViolatedException("Skipped: setUp failed in " + setupFailure);
+        }
+        for (String dependency : dependencies) {
+            boolean ok;
+            try {
+                ok = outcome(dependency).get();
+            } catch (ExecutionException e) {
+                ok = false;
+            }
+            if (!ok) throw new AssumptionViolatedException("Skipped: depends on " + dependency + ", which did not pass");
+        }
+    }
+
+    private static class WorkerScheduler implements RunnerScheduler {
+        private final ExecutorService executor;
+
+        WorkerScheduler(int workers) {
+            AtomicInteger ids = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "test-worker-" + ids.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        @Override
+        public void schedule(Runnable childStatement) {
+            executor.submit(childStatement);
+        }
+
+        @Override
+        public void finished() {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.List;
+
+/**
+ * /usuario/conta/senha: current, new and confirmation password inputs.
+ */
+public class PasswordPage extends Page {
+    public static final String PATH = "/usuario/conta/senha";
+
+    public static final By PASSWORD_FIELDS = By.cssSelector("input[type='password']");
+    public static final By SAVE = By.xpath("//button[contains(.,'Salvar')]");
+    public static final By MISMATCH_ERROR = By.xpath(
+            "//*[contains(text(), 'conferem') or contains(text(), 'coincidem') or contains(text(), 'iguais')]");
+
+    public PasswordPage(WebDriver driver, WebDriverWait wait, String baseUrl, StepTimings timings) {
+        super(driver, wait, baseUrl, timings);
+    }
+
+    @Override
+    protected String path() {
+        return PATH;
+    }
+
+    @Override
+    protected By readyMarker() {
+        return PASSWORD_FIELDS;
+    }
+
+    public List<WebElement> passwordFields() {
+        return driver.findElements(PASSWORD_FIELDS);
+    }
+
+    public void save() {
+        jsClick(SAVE);
+    }
+}
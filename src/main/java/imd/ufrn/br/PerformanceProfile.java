@@ -0,0 +1,61 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How much of a page the browser loads before navigation returns. {@link #FULL} matches a normal
+ * browser; the others stop at DOMContentLoaded (or not at all) and block images, fonts and
+ * analytics over CDP. Tests that assert on those resources opt back into {@link #FULL} with
+ * {@link UseProfile}.
+ */
+public enum PerformanceProfile {
+    FULL(PageLoadStrategy.NORMAL, false),
+    FAST(PageLoadStrategy.EAGER, true),
+    NO_WAIT(PageLoadStrategy.NONE, true);
+
+    static final List<String> BLOCKED_URLS = List.of(
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico",
+            "*.woff", "*.woff2", "*.ttf", "*.otf",
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*hotjar.com*", "*clarity.ms*");
+
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean blockResources;
+
+    PerformanceProfile(PageLoadStrategy pageLoadStrategy, boolean blockResources) {
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.blockResources = blockResources;
+    }
+
+    /** The profile for tests without {@link UseProfile}: {@code -DperfProfile} or {@code PERF_PROFILE}, else FAST. */
+    public static PerformanceProfile defaultProfile() {
+        String configured = System.getProperty("perfProfile", Credentials.env().get("PERF_PROFILE"));
+        return configured == null ? FAST : valueOf(configured.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--no-sandbox", "--disable-dev-shm-usage");
+        options.addArguments("--window-size=1920,1080");
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (blockResources) {
+            options.addArguments("--disable-extensions", "--disable-background-networking",
+                    "--disable-component-update", "--disable-default-apps", "--disable-sync");
+        }
+        return options;
+    }
+
+    /** Installs the URL block list on a freshly created driver; it survives later navigations. */
+    public void applyTo(WebDriver driver) {
+        if (blockResources && driver instanceof ChromeDriver chrome) {
+            chrome.executeCdpCommand("Network.enable", Map.of());
+            chrome.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", BLOCKED_URLS));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * The user-level flows of the profile pages (login, field saves, email change, LGPD view) for one
+ * browser session and account. Shared by {@code EditUserProfileTest}, which asserts on the
+ * results, and {@link LoadGenerator}, which replays them as load scenarios.
+ */
+public class ProfileFlows {
+    public static final By USERNAME = By.id("username");
+    public static final By PASSWORD = By.id("password");
+    public static final By SUBMIT = By.cssSelector("button[type='submit']");
+
+    private final WebDriver driver;
+    private final PerformanceProfile profile;
+    private final WebDriverWait wait;
+    private final String baseUrl;
+    private final StepTimings timings;
+    private final SessionCache sessions;
+    private final Credentials credentials;
+    private final Duration responseTimeout;
+    private final EditProfilePage edit;
+    private final PasswordPage password;
+    private final LgpdPage lgpd;
+
+    /** Masked values shown on the LGPD page. */
+    public record LgpdView(String cpf, String email) {}
+
+    public ProfileFlows(WebDriver driver, PerformanceProfile profile, String baseUrl, Duration timeout,
+                        StepTimings timings, SessionCache sessions, Credentials credentials) {
+        this.driver = driver;
+        this.profile = profile;
+        this.wait = new TimedWait(driver, timeout, timings, "wait");
+        this.baseUrl = baseUrl;
+        this.timings = timings;
+        this.sessions = sessions;
+        this.credentials = credentials;
+        this.responseTimeout = timeout;
+        this.edit = new EditProfilePage(driver, wait, baseUrl, timings);
+        this.password = new PasswordPage(driver, wait, baseUrl, timings);
+        this.lgpd = new LgpdPage(driver, wait, baseUrl, timings);
+    }
+
+    public WebDriverWait waiter() { return wait; }
+
+    public EditProfilePage edit() { return edit; }
+
+    public PasswordPage password() { return password; }
+
+    public LgpdPage lgpd() { return lgpd; }
+
+    public String loginUrl() {
+        return baseUrl + "/login/";
+    }
+
+    // --- LOGIN ---
+
+    /** Reuses a cached session when the server still accepts it, otherwise logs in with the form. */
+    public void ensureLoggedIn() {
+        timeNavigation("navigate:login", () -> driver.get(loginUrl()));
+        if (!isPresent(EditProfilePage.USER_MENU)
+                && !timings.time("login:restore", () -> sessions.restore(
+                        driver, credentials, loginUrl(), EditProfilePage.USER_MENU, USERNAME))) {
+            timings.time("login:form", () -> loginWithForm(credentials));
+        }
+    }
+
+    /** Fills the login form already on screen and caches the resulting session per credential pair. */
+    public void loginWithForm(Credentials login) {
+        type(wait.until(ExpectedConditions.visibilityOfElementLocated(USERNAME)), login.user());
+        type(driver.findElement(PASSWORD), login.pass());
+        jsClick(driver.findElement(SUBMIT));
+        wait.until(ExpectedConditions.visibilityOfElementLocated(EditProfilePage.USER_MENU));
+        sessions.capture(driver, login);
+    }
+
+    /** A cold login: drops the browser's session and goes through the form. */
+    public void freshLogin() {
+        driver.manage().deleteAllCookies();
+        timeNavigation("navigate:login", () -> driver.get(loginUrl()));
+        timings.time("login:form", () -> loginWithForm(credentials));
+    }
+
+    /** Logs out through the user menu; the server ends the session the cache entry points at. */
+    public void logout() {
+        edit.jsClick(EditProfilePage.USER_MENU);
+        jsClick(wait.until(ExpectedConditions.visibilityOfElementLocated(EditProfilePage.LOGOUT)));
+        wait.until(ExpectedConditions.urlContains("/login"));
+        sessions.invalidate(credentials);
+    }
+
+    public boolean isLoggedIn() {
+        return isPresent(EditProfilePage.USER_MENU);
+    }
+
+    // --- NAVIGATION ---
+
+    public void openEdit() {
+        timeNavigation("navigate:edit", edit::open);
+    }
+
+    public void openLgpd() {
+        timeNavigation("navigate:lgpd", lgpd::open);
+    }
+
+    public void openPassword() {
+        timeNavigation("navigate:password", password::open);
+    }
+
+    private void timeNavigation(String step, Runnable navigation) {
+        long start = System.nanoTime();
+        timings.time(step, navigation);
+        timings.navigation().record(profile, step, System.nanoTime() - start);
+    }
+
+    // --- PROFILE FORM ---
+
+    /** Replaces a field's value and saves, returning the save request with the server's answer. */
+    public NetworkCapture.Exchange updateField(EditProfilePage.Field field, String value) {
+        WebElement input = edit.field(field);
+        robustClear(input);
+        type(input, value);
+        return saveAndCapture();
+    }
+
+    /** Clicks Salvar and returns the first save request the page sends, or null when none is sent. */
+    public NetworkCapture.Exchange saveAndCapture() {
+        try (NetworkCapture capture = NetworkCapture.start(driver, NetworkCapture.writesTo(baseUrl))) {
+            edit.save();
+            return timings.time("wait:saveResponse", () -> capture.next(responseTimeout));
+        }
+    }
+
+    /** Reads the masked CPF and email from the LGPD page. */
+    public LgpdView viewLgpd() {
+        openLgpd();
+        return new LgpdView(lgpd.cellText(LgpdPage.CPF_CELL), lgpd.cellText(LgpdPage.EMAIL_CELL));
+    }
+
+    // --- INTERACTIONS ---
+
+    public void jsClick(WebElement element) {
+        timings.time("jsClick", () -> ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element));
+    }
+
+    public void type(WebElement element, CharSequence... keys) {
+        timings.time("sendKeys", () -> element.sendKeys(keys));
+    }
+
+    public boolean isPresent(By locator) {
+        try {
+            return driver.findElements(locator).size() > 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public void robustClear(WebElement element) {
+        timings.time("robustClear", () -> {
+            element.click();
+            element.sendKeys(Keys.chord(Keys.CONTROL, "a"), Keys.BACK_SPACE);
+        });
+    }
+}
@@ -0,0 +1,235 @@
+package imd.ufrn.br;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs scenarios, each typically owning a driver session and blocking in its waits, one thread per
+ * scenario. With {@link ThreadModel#VIRTUAL} those threads are virtual, so a blocked wait parks
+ * instead of holding a platform thread; {@link ThreadModel#PLATFORM} is the thread-per-test model
+ * the suite started from and is kept for comparison.
+ *
+ * <p>Cancellation is structured: {@link #runAll} returns only once every scenario has ended. A
+ * scenario past its deadline, every scenario when one fails under fail-fast, and every scenario when
+ * the caller is interrupted, is cancelled by running the hooks it registered (e.g. quitting its
+ * driver, which aborts a call stuck on the browser) and interrupting its thread.
+ */
+public class ScenarioOrchestrator {
+    public enum ThreadModel {
+        PLATFORM, VIRTUAL;
+
+        ThreadFactory factory(String prefix) {
+            return this == VIRTUAL
+                    ? Thread.ofVirtual().name(prefix, 1).factory()
+                    : Thread.ofPlatform().name(prefix, 1).daemon(true).factory();
+        }
+
+        /** Threads the scenarios can run on at once: the carrier pool, or one per scenario. */
+        int threads(int scenarios) {
+            return this == VIRTUAL
+                    ? Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors())
+                    : scenarios;
+        }
+
+        /** Reads {@code property} or the {@code variable} in .env, defaulting to virtual threads. */
+        public static ThreadModel fromSettings(String property, String variable) {
+            String configured = System.getProperty(property, Credentials.env().get(variable));
+            return configured == null || configured.isBlank()
+                    ? VIRTUAL
+                    : valueOf(configured.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public enum Status { SUCCEEDED, FAILED, TIMED_OUT, CANCELLED }
+
+    @FunctionalInterface
+    public interface Task {
+        void run(Context context) throws Exception;
+    }
+
+    public record Scenario(String name, Duration deadline, Task task) {}
+
+    public record Result(String name, Status status, long elapsedNanos, Throwable error) {}
+
+    /**
+     * Platform threads and CPU a run needed. Utilization is CPU time over the capacity of the threads
+     * the scenarios ran on (carriers for virtual threads, one thread per scenario otherwise).
+     */
+    public record ThreadUsage(ThreadModel model, int scenarios, long wallNanos, int baselineThreads,
+                              int peakThreads, int schedulingThreads, long cpuNanos) {
+        public int extraPlatformThreads() {
+            return Math.max(0, peakThreads - baselineThreads);
+        }
+
+        public double utilization() {
+            return wallNanos == 0 ? 0 : (double) cpuNanos / ((double) wallNanos * schedulingThreads);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Threads(%s): scenarios=%d wall=%.0fms platformThreads=%d->%d (+%d) schedulingThreads=%d cpu=%.0fms utilization=%.1f%%",
+                    model, scenarios, wallNanos / 1e6, baselineThreads, peakThreads, extraPlatformThreads(),
+                    schedulingThreads, cpuNanos / 1e6, utilization() * 100);
+        }
+    }
+
+    public record Run(List<Result> results, ThreadUsage usage) {
+        public boolean allSucceeded() {
+            return results.stream().allMatch(r -> r.status() == Status.SUCCEEDED);
+        }
+    }
+
+    /** Handed to a running scenario: its deadline, and the hooks that cancel it. */
+    public static final class Context {
+        private final long deadlineNanos;
+        private final List<Runnable> onCancel = new CopyOnWriteArrayList<>();
+        private volatile Status cancelledAs;
+        private volatile Thread thread;
+
+        Context(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /** Time left before the scenario is cancelled; waits inside it should not exceed this. */
+        public Duration remaining() {
+            return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+        }
+
+        public boolean isCancelled() {
+            return cancelledAs != null;
+        }
+
+        /** Registers cleanup that unblocks the scenario, e.g. quitting its driver. Runs at most once. */
+        public void onCancel(Runnable hook) {
+            onCancel.add(hook);
+            if (isCancelled()) runHooks();
+        }
+
+        public void throwIfCancelled() {
+            if (isCancelled()) throw new CancellationException("Scenario " + cancelledAs.name().toLowerCase(Locale.ROOT));
+        }
+
+        synchronized void cancel(Status reason) {
+            if (cancelledAs != null) return;
+            cancelledAs = reason;
+            runHooks();
+            Thread running = thread;
+            if (running != null) running.interrupt();
+        }
+
+        private void runHooks() {
+            for (Runnable hook : onCancel) {
+                if (onCancel.remove(hook)) {
+                    try {
+                        hook.run();
+                    } catch (RuntimeException ignored) {
+                        // Cancellation is best effort; the thread is interrupted regardless
+                    }
+                }
+            }
+        }
+    }
+
+    private final ThreadModel model;
+    private final boolean failFast;
+
+    public ScenarioOrchestrator(ThreadModel model, boolean failFast) {
+        this.model = model;
+        this.failFast = failFast;
+    }
+
+    public ThreadModel model() {
+        return model;
+    }
+
+    /** Runs every scenario on its own thread and returns once all of them have ended. */
+    public Run runAll(List<Scenario> scenarios) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int baseline = threads.getThreadCount();
+        long cpuStart = processCpuNanos();
+        long start = System.nanoTime();
+
+        List<Context> contexts = new CopyOnWriteArrayList<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Result>> futures = new ArrayList<>();
+        InterruptedException interrupted = null;
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(model.factory("scenario-"));
+             ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(
+                     Thread.ofVirtual().name("scenario-deadlines").factory())) {
+            for (Scenario scenario : scenarios) {
+                Context context = new Context(start + scenario.deadline().toNanos());
+                contexts.add(context);
+                if (failFast && failed.get()) context.cancel(Status.CANCELLED);
+                futures.add(executor.submit(() -> run(scenario, context, contexts, failed)));
+                deadlines.schedule(() -> context.cancel(Status.TIMED_OUT), scenario.deadline().toNanos(), TimeUnit.NANOSECONDS);
+            }
+            for (Future<Result> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    interrupted = e;
+                    contexts.forEach(c -> c.cancel(Status.CANCELLED));
+                    break;
+                } catch (ExecutionException e) {
+                    // run() turns every failure into a Result
+                }
+            }
+            deadlines.shutdownNow();
+            // Closing the executor waits for the cancelled scenarios to unwind
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            results.add(futures.get(i).state() == Future.State.SUCCESS
+                    ? futures.get(i).resultNow()
+                    : new Result(scenarios.get(i).name(), Status.CANCELLED, 0, null));
+        }
+        ThreadUsage usage = new ThreadUsage(model, scenarios.size(), System.nanoTime() - start, baseline,
+                threads.getPeakThreadCount(), model.threads(scenarios.size()), processCpuNanos() - cpuStart);
+        if (interrupted != null) throw interrupted;
+        return new Run(results, usage);
+    }
+
+    private Result run(Scenario scenario, Context context, List<Context> all, AtomicBoolean failed) {
+        context.thread = Thread.currentThread();
+        long start = System.nanoTime();
+        try {
+            context.throwIfCancelled();
+            scenario.task().run(context);
+            return new Result(scenario.name(), context.isCancelled() ? context.cancelledAs : Status.SUCCEEDED,
+                    System.nanoTime() - start, null);
+        } catch (Throwable e) {
+            if (context.isCancelled()) {
+                return new Result(scenario.name(), context.cancelledAs, System.nanoTime() - start, e);
+            }
+            if (failFast) {
+                failed.set(true);
+                all.stream().filter(c -> c != context).forEach(c -> c.cancel(Status.CANCELLED));
+            }
+            return new Result(scenario.name(), Status.FAILED, System.nanoTime() - start, e);
+        } finally {
+            context.thread = null;
+        }
+    }
+
+    private static long processCpuNanos() {
+        return ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                ? os.getProcessCpuTime()
+                : 0;
+    }
+}
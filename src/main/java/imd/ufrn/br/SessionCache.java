@@ -0,0 +1,88 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the cookies and web storage of an authenticated session, one entry per login,
+ * so later browser sessions can skip the login form.
+ */
+public class SessionCache {
+    private static final String READ_STORAGE =
+            "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } return o; }"
+            + "return { local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+    private static final String WRITE_STORAGE =
+            "var l = arguments[0], s = arguments[1];"
+            + "Object.keys(l).forEach(function (k) { window.localStorage.setItem(k, l[k]); });"
+            + "Object.keys(s).forEach(function (k) { window.sessionStorage.setItem(k, s[k]); });";
+
+    private final Map<String, SessionState> entries = new ConcurrentHashMap<>();
+    private final Duration verifyTimeout;
+    private final AtomicLong restored = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private record SessionState(Set<Cookie> cookies, Map<String, String> local, Map<String, String> session) {}
+
+    public SessionCache(Duration verifyTimeout) {
+        this.verifyTimeout = verifyTimeout;
+    }
+
+    /** Snapshots the current, already authenticated browser state for {@code credentials}. */
+    @SuppressWarnings("unchecked")
+    public void capture(WebDriver driver, Credentials credentials) {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE);
+        entries.put(credentials.user(), new SessionState(
+                Set.copyOf(driver.manage().getCookies()),
+                (Map<String, String>) storage.get("local"),
+                (Map<String, String>) storage.get("session")));
+    }
+
+    /**
+     * Injects the cached state into a driver already sitting on {@code pageUrl} and reloads it.
+     * Returns false, and drops the entry, when there is nothing cached or the server no longer
+     * accepts the session; the caller then falls back to the login form.
+     */
+    public boolean restore(WebDriver driver, Credentials credentials, String pageUrl, By loggedInMarker, By loginForm) {
+        SessionState state = entries.get(credentials.user());
+        if (state == null) return false;
+        try {
+            state.cookies().forEach(driver.manage()::addCookie);
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, state.local(), state.session());
+            driver.get(pageUrl);
+            new WebDriverWait(driver, verifyTimeout).until(ExpectedConditions.or(
+                    ExpectedConditions.visibilityOfElementLocated(loggedInMarker),
+                    ExpectedConditions.visibilityOfElementLocated(loginForm)));
+            if (!driver.findElements(loggedInMarker).isEmpty()) {
+                restored.incrementAndGet();
+                return true;
+            }
+        } catch (WebDriverException e) {
+            // Treated the same as a rejected session
+        }
+        rejected.incrementAndGet();
+        invalidate(credentials);
+        driver.manage().deleteAllCookies();
+        driver.get(pageUrl);
+        return false;
+    }
+
+    public void invalidate(Credentials credentials) {
+        entries.remove(credentials.user());
+    }
+
+    public String stats() {
+        return String.format("SessionCache: entries=%d restored=%d rejected=%d",
+                entries.size(), restored.get(), rejected.get());
+    }
+}
@@ -0,0 +1,96 @@
+package imd.ufrn.br;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.TestClass;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * One of {@code total} slices of a test class, numbered from 1. Methods joined by {@link DependsOn}
+ * always land in the same slice; the groups are dealt out by method count to the slice with the
+ * fewest so far. The split only depends on the class itself, so every machine running a slice of
+ * the same build agrees on it. The test accounts are split the same way, every {@code total}-th
+ * one from {@code index}, so slices never change the same account at once.
+ */
+public record Shard(int index, int total) {
+    public static final Shard ALL = new Shard(1, 1);
+
+    public Shard {
+        if (total < 1 || index < 1 || index > total) {
+            throw new IllegalArgumentException("Shard must be index/total with 1 <= index <= total, got " + index + "/" + total);
+        }
+    }
+
+    /** The slice {@link Main} is running, from the {@code shard} system property; all of it otherwise. */
+    public static Shard current() {
+        String configured = System.getProperty("shard");
+        return configured == null ? ALL : parse(configured);
+    }
+
+    /** Parses {@code index/total}, e.g. {@code 2/4}. */
+    public static Shard parse(String value) {
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) throw new IllegalArgumentException("Shard must be index/total, got " + value);
+        return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+
+    /** Names of this slice's methods among the given groups. */
+    public Set<String> select(List<List<FrameworkMethod>> groups) {
+        int[] sizes = new int[total];
+        List<FrameworkMethod> mine = new ArrayList<>();
+        for (List<FrameworkMethod> group : groups) {
+            int target = 0;
+            for (int i = 1; i < total; i++) {
+                if (sizes[i] < sizes[target]) target = i;
+            }
+            sizes[target] += group.size();
+            if (target == index - 1) mine.addAll(group);
+        }
+        return mine.stream().map(FrameworkMethod::getName).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /** This slice's test methods of {@code testClass}. */
+    public Set<String> select(Class<?> testClass) {
+        List<FrameworkMethod> methods = new ArrayList<>(new TestClass(testClass).getAnnotatedMethods(Test.class));
+        // Reflection order is not guaranteed to match between JVMs
+        methods.sort(Comparator.comparing(FrameworkMethod::getName));
+        return select(DependencyGraph.groups(methods));
+    }
+
+    /** This slice's share of the configured test accounts. */
+    public <T> List<T> accounts(List<T> all) {
+        if (all.size() < total) {
+            throw new IllegalStateException(total + " shards need at least " + total + " test accounts (TEST_USER_1 to TEST_USER_"
+                    + total + "), found " + all.size());
+        }
+        return IntStream.range(0, all.size()).filter(i -> i % total == index - 1).mapToObj(all::get).toList();
+    }
+
+    public Filter filter(Class<?> testClass) {
+        Set<String> names = select(testClass);
+        return new Filter() {
+            @Override
+            public boolean shouldRun(Description description) {
+                return description.getMethodName() == null || names.contains(description.getMethodName());
+            }
+
+            @Override
+            public String describe() {
+                return "shard " + Shard.this + " of " + testClass.getSimpleName();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + total;
+    }
+}
@@ -0,0 +1,214 @@
+package imd.ufrn.br;
+
+import org.junit.rules.ExternalResource;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Run-wide collector of per-step durations measured with {@link System#nanoTime()}. Steps are
+ * attributed to the test running on the current thread. Used as a class rule it writes
+ * {@code step-timings.json}/{@code .csv} (selected by {@code reportFormat}) into {@code reportDir},
+ * along with the raw samples in {@code step-samples.json} so reports of several shards can be merged.
+ */
+public class StepTimings extends ExternalResource {
+    private static final StepTimings SHARED = new StepTimings();
+    static final String NO_TEST = "(outside test)";
+    static final String SAMPLES_FILE = "step-samples.json";
+
+    private final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, List<Long>>> samples = new ConcurrentHashMap<>();
+    private final NavigationTimings navigation = new NavigationTimings();
+
+    public static StepTimings shared() {
+        return SHARED;
+    }
+
+    /** Navigation times of this run per profile, for comparing the profiles. */
+    public NavigationTimings navigation() {
+        return navigation;
+    }
+
+    /** Attributes steps on the test's thread to that test for the duration of each test. */
+    public TestRule perTest() {
+        return (base, description) -> new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                String previous = currentTest.get();
+                currentTest.set(testName(description));
+                try {
+                    base.evaluate();
+                } finally {
+                    currentTest.set(previous);
+                }
+            }
+        };
+    }
+
+    static String testName(Description description) {
+        return description.getMethodName() == null
+                ? description.getClassName()
+                : description.getTestClass().getSimpleName() + "." + description.getMethodName();
+    }
+
+    public String currentTest() {
+        String test = currentTest.get();
+        return test == null ? NO_TEST : test;
+    }
+
+    public <T> T time(String step, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(step, System.nanoTime() - start);
+        }
+    }
+
+    public void time(String step, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(step, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String step, long nanos) {
+        samples.computeIfAbsent(currentTest(), t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(step, s -> Collections.synchronizedList(new ArrayList<>()))
+                .add(nanos);
+    }
+
+    /** Total nanoseconds per step recorded so far for {@code test}. */
+    public Map<String, Long> totals(String test) {
+        Map<String, Long> totals = new TreeMap<>();
+        samples.getOrDefault(test, new ConcurrentHashMap<>()).forEach((step, values) -> {
+            synchronized (values) {
+                totals.put(step, values.stream().mapToLong(Long::longValue).sum());
+            }
+        });
+        return totals;
+    }
+
+    /** Nearest-rank percentile over already sorted samples. */
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    /** Per test, per step: count, p50, p95, max and total in milliseconds. */
+    public Map<String, Map<String, Map<String, Object>>> summary() {
+        Map<String, Map<String, Map<String, Object>>> tests = new TreeMap<>();
+        samples.forEach((test, steps) -> {
+            Map<String, Map<String, Object>> stepStats = new TreeMap<>();
+            steps.forEach((step, values) -> {
+                long[] sorted;
+                synchronized (values) {
+                    sorted = values.stream().mapToLong(Long::longValue).toArray();
+                }
+                Arrays.sort(sorted);
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", sorted.length);
+                stats.put("p50Ms", millis(percentile(sorted, 50)));
+                stats.put("p95Ms", millis(percentile(sorted, 95)));
+                stats.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+                stats.put("totalMs", millis(Arrays.stream(sorted).sum()));
+                stepStats.put(step, stats);
+            });
+            tests.put(test, stepStats);
+        });
+        return tests;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+
+    public void writeReport(Path dir, String format) {
+        Map<String, Map<String, Map<String, Object>>> summary = summary();
+        try {
+            Files.createDirectories(dir);
+            if (format.equals("json") || format.equals("both")) {
+                Map<String, Object> report = new LinkedHashMap<>();
+                report.put("generatedAt", Instant.now().toString());
+                report.put("tests", summary);
+                Files.writeString(dir.resolve("step-timings.json"), new Json().toJson(report), StandardCharsets.UTF_8);
+            }
+            if (format.equals("csv") || format.equals("both")) {
+                StringBuilder csv = new StringBuilder("test,step,count,p50_ms,p95_ms,max_ms,total_ms\n");
+                summary.forEach((test, steps) -> steps.forEach((step, s) -> csv.append(String.join(",",
+                        test, step, s.get("count").toString(), s.get("p50Ms").toString(), s.get("p95Ms").toString(),
+                        s.get("maxMs").toString(), s.get("totalMs").toString())).append('\n')));
+                Files.writeString(dir.resolve("step-timings.csv"), csv, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Writes every sample, in nanoseconds, per test and step. */
+    public void writeSamples(Path dir) {
+        Map<String, Map<String, List<Long>>> raw = new TreeMap<>();
+        samples.forEach((test, steps) -> steps.forEach((step, values) -> {
+            synchronized (values) {
+                raw.computeIfAbsent(test, t -> new TreeMap<>()).put(step, List.copyOf(values));
+            }
+        }));
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve(SAMPLES_FILE), new Json().toJson(raw), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Adds the samples of a {@code step-samples.json} written by {@link #writeSamples}. */
+    @SuppressWarnings("unchecked")
+    public void readSamples(Path file) {
+        try {
+            Map<String, Object> raw = new Json().toType(Files.readString(file, StandardCharsets.UTF_8), Json.MAP_TYPE);
+            raw.forEach((test, steps) -> ((Map<String, List<Number>>) steps).forEach((step, values) -> {
+                List<Long> target = samples.computeIfAbsent(test, t -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(step, s -> Collections.synchronizedList(new ArrayList<>()));
+                values.forEach(v -> target.add(v.longValue()));
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Path reportDir() {
+        return Path.of(System.getProperty("reportDir", "target"));
+    }
+
+    public static String reportFormat() {
+        return System.getProperty("reportFormat", "both");
+    }
+
+    @Override
+    protected void after() {
+        writeReport(reportDir(), reportFormat());
+        writeSamples(reportDir());
+        System.out.println("Step timings written to " + reportDir().toAbsolutePath());
+    }
+}
@@ -0,0 +1,26 @@
+package imd.ufrn.br;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * A {@link WebDriverWait} that records how long every {@code until} call blocked.
+ */
+public class TimedWait extends WebDriverWait {
+    private final StepTimings timings;
+    private final String step;
+
+    public TimedWait(WebDriver driver, Duration timeout, StepTimings timings, String step) {
+        super(driver, timeout);
+        this.timings = timings;
+        this.step = step;
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        return timings.time(step, () -> super.until(isTrue));
+    }
+}
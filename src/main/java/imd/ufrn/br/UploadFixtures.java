@@ -0,0 +1,261 @@
+package imd.ufrn.br;
+
+import org.junit.rules.ExternalResource;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Generates real image payloads (JPEG, PNG, WebP) of configurable dimensions, and files with
+ * dangerous extensions, once per run in a shared directory. Pixels are seeded noise so file size
+ * grows with the dimensions instead of compressing away. Used as a class rule, the directory is
+ * deleted when the class finishes.
+ */
+public class UploadFixtures extends ExternalResource {
+    public enum Format {
+        JPEG("jpg"), PNG("png"), WEBP("webp");
+
+        final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    /** One cell of the upload payload matrix. */
+    public record ImageSpec(Format format, int width, int height) {
+        String fileName() {
+            return "image_" + width + "x" + height + "." + format.extension;
+        }
+    }
+
+    /** Dimensions from a few KB up to ~10 MB per format; {@code -DuploadMatrix=full} adds ~35 MB images. */
+    public static List<ImageSpec> sizeMatrix() {
+        List<int[]> dims = new ArrayList<>(List.of(new int[]{64, 64}, new int[]{1024, 768}, new int[]{2048, 1536}));
+        if ("full".equals(System.getProperty("uploadMatrix"))) dims.add(new int[]{4000, 3000});
+        List<ImageSpec> specs = new ArrayList<>();
+        for (int[] d : dims) {
+            for (Format f : Format.values()) specs.add(new ImageSpec(f, d[0], d[1]));
+        }
+        return specs;
+    }
+
+    private static final Map<String, byte[]> MALICIOUS = Map.of(
+            ".txt", "Arquivo de texto que não é uma imagem\n".getBytes(StandardCharsets.UTF_8),
+            ".exe", new byte[]{'M', 'Z', (byte) 0x90, 0, 3, 0, 0, 0, 4, 0, 0, 0, (byte) 0xff, (byte) 0xff, 0, 0},
+            ".sh", "#!/bin/sh\necho pwned\n".getBytes(StandardCharsets.UTF_8),
+            ".html", "<html><body><script>alert(document.cookie)</script></body></html>\n".getBytes(StandardCharsets.UTF_8));
+
+    private final Path dir;
+    private final Map<String, Path> generated = new ConcurrentHashMap<>();
+
+    public UploadFixtures(Path dir) {
+        this.dir = dir;
+    }
+
+    /** {@code upload-fixtures} under {@code reportDir}, so concurrent shards never delete each other's files. */
+    public static UploadFixtures inReportDir() {
+        return new UploadFixtures(StepTimings.reportDir().resolve("upload-fixtures"));
+    }
+
+    public Path image(Format format, int width, int height) {
+        return image(new ImageSpec(format, width, height));
+    }
+
+    public Path image(ImageSpec spec) {
+        return generated.computeIfAbsent(spec.fileName(), name -> write(name, encode(spec)));
+    }
+
+    /** A non-image payload named with {@code extension}, e.g. ".exe". */
+    public Path malicious(String extension) {
+        byte[] content = MALICIOUS.get(extension);
+        if (content == null) throw new IllegalArgumentException("No malicious fixture for " + extension);
+        return generated.computeIfAbsent("exploit" + extension, name -> write(name, content));
+    }
+
+    private Path write(String name, byte[] content) {
+        try {
+            Files.createDirectories(dir);
+            return Files.write(dir.resolve(name), content).toAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encode(ImageSpec spec) {
+        Random random = new Random(31L * spec.width() + spec.height());
+        try {
+            return switch (spec.format()) {
+                case JPEG -> imageIo(noise(spec, random), "jpg");
+                case PNG -> imageIo(noise(spec, random), "png");
+                case WEBP -> webpLossless(spec.width(), spec.height(), random);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedImage noise(ImageSpec spec, Random random) {
+        BufferedImage image = new BufferedImage(spec.width(), spec.height(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < spec.height(); y++) {
+            for (int x = 0; x < spec.width(); x++) image.setRGB(x, y, random.nextInt(0x1000000));
+        }
+        return image;
+    }
+
+    private static byte[] imageIo(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0.9f);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // --- WEBP (VP8L lossless) ---
+
+    /**
+     * ImageIO has no WebP writer, so this emits the simplest valid VP8L stream: no transforms, no
+     * color cache, flat 8-bit prefix codes for green/red/blue, and opaque alpha at zero bits.
+     */
+    static byte[] webpLossless(int width, int height, Random random) {
+        if (width < 1 || height < 1 || width > 16384 || height > 16384) {
+            throw new IllegalArgumentException("WebP dimensions must be 1..16384");
+        }
+        BitWriter bits = new BitWriter((int) Math.min(Integer.MAX_VALUE - 64, 3L * width * height + 256));
+        bits.write(0x2f, 8);
+        bits.write(width - 1, 14);
+        bits.write(height - 1, 14);
+        bits.write(0, 1); // alpha_is_used
+        bits.write(0, 3); // version
+        bits.write(0, 1); // no transforms
+        bits.write(0, 1); // no color cache
+        bits.write(0, 1); // no meta prefix codes
+        writeFlat8BitCode(bits, 256 + 24); // green + length prefixes
+        writeFlat8BitCode(bits, 256);      // red
+        writeFlat8BitCode(bits, 256);      // blue
+        writeSingleSymbol(bits, 255);      // alpha, always opaque
+        writeSingleSymbol(bits, 0);        // distance, never used
+        for (long i = (long) width * height; i > 0; i--) {
+            int rgb = random.nextInt(0x1000000);
+            bits.writeCode((rgb >> 8) & 0xff);
+            bits.writeCode((rgb >> 16) & 0xff);
+            bits.writeCode(rgb & 0xff);
+        }
+        byte[] payload = bits.toByteArray();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + 21);
+        int padded = payload.length + (payload.length & 1);
+        out.writeBytes("RIFF".getBytes(StandardCharsets.US_ASCII));
+        writeLe32(out, 4 + 8 + padded);
+        out.writeBytes("WEBPVP8L".getBytes(StandardCharsets.US_ASCII));
+        writeLe32(out, payload.length);
+        out.writeBytes(payload);
+        if ((payload.length & 1) == 1) out.write(0);
+        return out.toByteArray();
+    }
+
+    /** Normal prefix code where symbols 0..255 have length 8 and any symbol above has length 0. */
+    private static void writeFlat8BitCode(BitWriter bits, int alphabetSize) {
+        // Code-length code order is {17, 18, 0, 1, 2, 3, 4, 5, 16, 6, 7, 8, ...}; only 0 and 8 are used
+        bits.write(0, 1);
+        bits.write(12 - 4, 4);
+        int[] lengths = {0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 1};
+        for (int length : lengths) bits.write(length, 3);
+        bits.write(0, 1); // max_symbol = alphabet size
+        // Canonical code-length code: length 0 -> bit 0, length 8 -> bit 1
+        for (int symbol = 0; symbol < alphabetSize; symbol++) bits.write(symbol < 256 ? 1 : 0, 1);
+    }
+
+    private static void writeSingleSymbol(BitWriter bits, int symbol) {
+        bits.write(1, 1); // simple code
+        bits.write(0, 1); // one symbol
+        bits.write(1, 1); // 8-bit symbol
+        bits.write(symbol, 8);
+    }
+
+    private static void writeLe32(OutputStream out, int value) {
+        try {
+            out.write(new byte[]{(byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24)});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** LSB-first bit packer as VP8L expects. */
+    private static final class BitWriter {
+        private byte[] buffer;
+        private int length;
+        private long acc;
+        private int used;
+
+        BitWriter(int capacity) {
+            buffer = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(int value, int count) {
+            acc |= ((long) value & ((1L << count) - 1)) << used;
+            used += count;
+            while (used >= 8) {
+                if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                buffer[length++] = (byte) acc;
+                acc >>>= 8;
+                used -= 8;
+            }
+        }
+
+        /** Writes an 8-bit canonical prefix code, whose bits are read most significant first. */
+        void writeCode(int symbol) {
+            write(Integer.reverse(symbol) >>> 24, 8);
+        }
+
+        byte[] toByteArray() {
+            if (used > 0) write(0, 8 - used);
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    // --- LIFECYCLE ---
+
+    public void cleanUp() {
+        generated.clear();
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) Files.deleteIfExists(p);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void after() {
+        cleanUp();
+    }
+}
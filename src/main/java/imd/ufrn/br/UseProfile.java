@@ -0,0 +1,15 @@
+package imd.ufrn.br;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the {@link PerformanceProfile} of the browser a test runs in.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface UseProfile {
+    PerformanceProfile value();
+}
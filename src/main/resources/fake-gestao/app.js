@@ -0,0 +1,51 @@
+var CONTEXT = '/gestao';
+
+function toast(severity, message) {
+    var container = document.querySelector('.p-toast');
+    if (!container) {
+        container = document.createElement('div');
+        container.className = 'p-toast';
+        document.body.appendChild(container);
+    }
+    var el = document.createElement('div');
+    el.className = 'p-toast-message p-toast-message-' + severity;
+    el.setAttribute('role', 'alert');
+    el.textContent = message;
+    container.appendChild(el);
+    setTimeout(function () { el.remove(); }, 3000);
+}
+
+function fieldError(id, message) {
+    var input = document.getElementById(id);
+    var el = document.createElement('small');
+    el.className = 'p-error';
+    el.id = id + '-error';
+    el.textContent = message;
+    input.insertAdjacentElement('afterend', el);
+    return false;
+}
+
+function clearFieldErrors() {
+    document.querySelectorAll('.p-error').forEach(function (el) { el.remove(); });
+}
+
+function toggleUserMenu() {
+    var panel = document.getElementById('user-menu-panel');
+    panel.hidden = !panel.hidden;
+}
+
+function logout() {
+    fetch(CONTEXT + '/logout', { method: 'POST' }).then(function () {
+        window.location.href = CONTEXT + '/login/';
+    });
+}
+
+function sendJson(method, path, body) {
+    return fetch(CONTEXT + path, {
+        method: method,
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify(body)
+    }).then(function (res) {
+        return res.json().then(function (data) { return { ok: res.ok, status: res.status, data: data }; });
+    });
+}
@@ -0,0 +1,145 @@
+package imd.ufrn.br;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AccountSnapshotsTest {
+    private static final Credentials ACCOUNT = new Credentials("tester", "secret");
+
+    private FakeGestaoServer server;
+    private AccountSnapshots snapshots;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeGestaoServer(0, 0, List.of(ACCOUNT)).start();
+        snapshots = new AccountSnapshots(server.baseUrl(), List.of(ACCOUNT), this::formLogin, Duration.ofSeconds(5));
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    private String formLogin(Credentials account) throws Exception {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + "/login/"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + account.user() + "&password=" + account.pass()))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        return response.headers().firstValue("Set-Cookie").orElseThrow().split(";")[0];
+    }
+
+    private void send(String method, String path, String contentType, byte[] body, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(server.baseUrl() + path))
+                .header("Cookie", formLogin(ACCOUNT))
+                .header("Content-Type", contentType)
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(body));
+        if (headers.length > 0) request.headers(headers);
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(response.body(), 200, response.statusCode());
+    }
+
+    private void edit(String nome, String email, String dataNascimento) throws Exception {
+        String body = "{\"nome\":\"" + nome + "\",\"cpf\":\"529.982.247-25\",\"email\":\"" + email
+                + "\",\"dataNascimento\":\"" + dataNascimento + "\"}";
+        send("PUT", "/api/usuario/conta", "application/json", body.getBytes());
+    }
+
+    private void upload(byte[] image) throws Exception {
+        send("POST", "/api/usuario/foto", "image/png", image, "X-Filename", "avatar.png");
+    }
+
+    @Test
+    public void restoresChangedFieldsInOneCall() throws Exception {
+        FakeGestaoServer.Profile profile = server.profile("tester");
+        String nome = profile.nome;
+        String email = profile.email;
+        snapshots.before();
+
+        edit("User_changed", "auto_1234@example.com", "10/06/1990");
+        assertEquals("auto_1234@example.com", profile.email);
+
+        snapshots.after();
+        assertEquals(nome, profile.nome);
+        assertEquals(email, profile.email);
+        assertEquals("15/03/1995", profile.dataNascimento);
+    }
+
+    @Test
+    public void leavesAnUntouchedAccountAlone() throws Exception {
+        AccountSnapshots.Snapshot snapshot = snapshots.take(ACCOUNT);
+        assertEquals("unchanged", snapshots.restore(ACCOUNT, snapshot));
+    }
+
+    @Test
+    public void reuploadsAChangedAvatar() throws Exception {
+        byte[] original = {(byte) 0x89, 'P', 'N', 'G', 1};
+        upload(original);
+        AccountSnapshots.Snapshot snapshot = snapshots.take(ACCOUNT);
+
+        upload(new byte[]{(byte) 0x89, 'P', 'N', 'G', 2});
+        assertEquals("restored avatar", snapshots.restore(ACCOUNT, snapshot));
+        assertArrayEquals(original, server.profile("tester").avatar);
+    }
+
+    @Test
+    public void reportsADefaultAvatarThatCannotBeUploaded() throws Exception {
+        AccountSnapshots.Snapshot snapshot = snapshots.take(ACCOUNT);
+        upload(new byte[]{(byte) 0x89, 'P', 'N', 'G'});
+        assertTrue(snapshots.restore(ACCOUNT, snapshot).contains("avatar not restored"));
+    }
+
+    @Test
+    public void failedSnapshotFailsTheClass() {
+        AccountSnapshots failing = new AccountSnapshots(server.baseUrl(), List.of(ACCOUNT), account -> {
+            throw new IOException("login page did not load");
+        }, Duration.ofSeconds(5));
+        IllegalStateException e = assertThrows(IllegalStateException.class, failing::before);
+        assertTrue(e.getMessage().contains("tester"));
+        assertNull(failing.snapshot(ACCOUNT));
+    }
+
+    @Test
+    public void siteWithoutAccountApiLeavesTheRestoreToTheTests() throws Exception {
+        AccountSnapshots legacy = new AccountSnapshots(server.baseUrl() + "/legacy", List.of(ACCOUNT), this::formLogin,
+                Duration.ofSeconds(5));
+        legacy.before();
+        assertNull(legacy.snapshot(ACCOUNT));
+        legacy.after();
+    }
+
+    @Test
+    public void htmlFallbackForTheAccountApiMeansNoSnapshot() throws Exception {
+        HttpServer spa = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        spa.createContext("/", exchange -> {
+            byte[] page = "<!doctype html><div id=app></div>".getBytes();
+            exchange.getResponseHeaders().set("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, page.length);
+            exchange.getResponseBody().write(page);
+            exchange.close();
+        });
+        spa.start();
+        try {
+            AccountSnapshots snapshots = new AccountSnapshots("http://localhost:" + spa.getAddress().getPort(),
+                    List.of(ACCOUNT), account -> "", Duration.ofSeconds(5));
+            snapshots.before();
+            assertNull(snapshots.snapshot(ACCOUNT));
+        } finally {
+            spa.stop(0);
+        }
+    }
+}
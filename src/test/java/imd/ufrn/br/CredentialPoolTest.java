@@ -0,0 +1,38 @@
+package imd.ufrn.br;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CredentialPoolTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Dotenv env(String... lines) throws IOException {
+        Files.write(folder.getRoot().toPath().resolve(".env"), List.of(lines));
+        return Dotenv.configure().directory(folder.getRoot().getPath()).load();
+    }
+
+    @Test
+    public void numberedAccountsWinOverTheSingleOne() throws IOException {
+        CredentialPool pool = CredentialPool.fromEnv(env("TEST_USER=solo", "TEST_PASS=x",
+                "TEST_USER_1=first", "TEST_PASS_1=a", "TEST_USER_2=second", "TEST_PASS_2=b"));
+        assertEquals(List.of(new Credentials("first", "a"), new Credentials("second", "b")), pool.accounts());
+    }
+
+    @Test
+    public void missingAccountsNameTheVariables() throws IOException {
+        Dotenv empty = env("BASE_URL=local");
+        if (empty.get("TEST_USER") != null || empty.get("TEST_USER_1") != null) return; // set in the real environment
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> CredentialPool.fromEnv(empty));
+        assertTrue(e.getMessage().contains("TEST_USER"));
+        assertTrue(e.getMessage().contains("TEST_USER_1"));
+    }
+}
@@ -0,0 +1,52 @@
+package imd.ufrn.br;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ElementCacheTest {
+    private static final By INPUT = By.id("formFile");
+
+    /** A page whose input is re-rendered: every element but the newest one is stale. */
+    private static class RerenderingPage {
+        final List<String> typed = new ArrayList<>();
+        int renders;
+
+        WebElement render() {
+            int render = ++renders;
+            return (WebElement) Proxy.newProxyInstance(WebElement.class.getClassLoader(), new Class<?>[]{WebElement.class},
+                    (proxy, method, args) -> {
+                        if (render != renders) throw new StaleElementReferenceException("re-rendered");
+                        if (method.getName().equals("sendKeys")) typed.add(render + ":" + ((CharSequence[]) args[0])[0]);
+                        if (method.getName().equals("getTagName")) return "input";
+                        return null;
+                    });
+        }
+
+        SearchContext context() {
+            return (SearchContext) Proxy.newProxyInstance(SearchContext.class.getClassLoader(), new Class<?>[]{SearchContext.class},
+                    (proxy, method, args) -> method.getName().equals("findElement") ? render() : List.of());
+        }
+    }
+
+    @Test
+    public void heldElementRecoversFromARerender() {
+        RerenderingPage page = new RerenderingPage();
+        ElementCache cache = new ElementCache(page.context());
+        WebElement input = cache.element(INPUT);
+        input.sendKeys("a.jpg");
+
+        page.render();
+        input.sendKeys("b.jpg");
+        assertEquals("input", input.getTagName());
+        assertEquals(List.of("1:a.jpg", "3:b.jpg"), page.typed);
+    }
+}
@@ -0,0 +1,116 @@
+package imd.ufrn.br;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FakeGestaoServerTest {
+    private FakeGestaoServer server;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeGestaoServer(0, 0, List.of(new Credentials("tester", "secret"))).start();
+        client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(String method, String path, String contentType, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + path))
+                .header("Content-Type", contentType)
+                .method(method, HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void login() throws Exception {
+        HttpResponse<String> home = send("POST", "/login/", "application/x-www-form-urlencoded", "username=tester&password=secret");
+        assertTrue(home.body().contains("Abrir menu do usuário"));
+    }
+
+    @Test
+    public void protectedPagesRedirectToLogin() throws Exception {
+        HttpResponse<String> res = get("/usuario/conta/editar");
+        assertTrue(res.uri().getPath().endsWith("/login/"));
+        assertTrue(res.body().contains("id=\"username\""));
+    }
+
+    @Test
+    public void wrongPasswordIsRejected() throws Exception {
+        HttpResponse<String> res = send("POST", "/login/", "application/x-www-form-urlencoded", "username=tester&password=nope");
+        assertTrue(res.body().contains("Usuário ou senha inválidos"));
+    }
+
+    @Test
+    public void editPageExposesSuiteElementIds() throws Exception {
+        login();
+        String html = get("/usuario/conta/editar").body();
+        for (String id : new String[]{"input-nome", "input-email", "pessoa.cpf", "pessoa.dataNascimento", "formFile", "lbl-input-login"}) {
+            assertTrue("Missing #" + id, html.contains("id=\"" + id + "\""));
+        }
+    }
+
+    @Test
+    public void saveUppercasesNameAndPersistsToLgpd() throws Exception {
+        login();
+        HttpResponse<String> res = send("PUT", "/api/usuario/conta", "application/json",
+                "{\"nome\":\"Maria\",\"cpf\":\"529.982.247-25\",\"email\":\"maria@example.com\",\"dataNascimento\":\"10/06/1990\"}");
+        assertEquals(200, res.statusCode());
+        assertTrue(res.body().contains("\"MARIA\""));
+        String lgpd = get("/lgpd").body();
+        assertTrue(lgpd.contains("***.982.247-**"));
+        assertTrue(lgpd.contains("m*****a@example.com"));
+        assertTrue(lgpd.contains("10/06/1990"));
+    }
+
+    @Test
+    public void ancientBirthDateIsRejected() throws Exception {
+        login();
+        HttpResponse<String> res = send("PUT", "/api/usuario/conta", "application/json",
+                "{\"nome\":\"Maria\",\"cpf\":\"529.982.247-25\",\"email\":\"maria@example.com\",\"dataNascimento\":\"01/01/0024\"}");
+        assertEquals(422, res.statusCode());
+    }
+
+    @Test
+    public void nonImageUploadsAreRejected() throws Exception {
+        login();
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + "/api/usuario/foto"))
+                .header("X-Filename", "exploit.sh")
+                .POST(HttpRequest.BodyPublishers.ofString("#!/bin/sh")).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(415, res.statusCode());
+    }
+
+    @Test
+    public void loginAcceptsEmail() throws Exception {
+        HttpResponse<String> res = send("POST", "/login/", "application/x-www-form-urlencoded",
+                "username=tester%40example.com&password=secret");
+        assertTrue(res.body().contains("Abrir menu do usuário"));
+    }
+
+    @Test
+    public void cpfChecksum() {
+        assertTrue(FakeGestaoServer.isValidCpf("529.982.247-25"));
+        assertFalse(FakeGestaoServer.isValidCpf("111.111.111-11"));
+        assertFalse(FakeGestaoServer.isValidCpf("529.982.247-26"));
+    }
+}
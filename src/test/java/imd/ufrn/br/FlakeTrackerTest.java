@@ -0,0 +1,167 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.FlakeTracker.Attempt;
+import imd.ufrn.br.FlakeTracker.Outcome;
+import org.junit.AssumptionViolatedException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FlakeTrackerTest {
+    private static final Description TEST = Description.createTestDescription(FlakeTrackerTest.class, "test02_ValidNameUpdate");
+    private static final String NAME = "FlakeTrackerTest.test02_ValidNameUpdate";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path history;
+    private DriverPool pool;
+
+    @Before
+    public void setUp() {
+        history = folder.getRoot().toPath().resolve("flakes/history.jsonl");
+        pool = new DriverPool(profile -> { throw new AssertionError("no browser in this test"); }, 1);
+    }
+
+    private FlakeTracker tracker(int retries) {
+        FlakeTracker tracker = new FlakeTracker(history, retries, true, new StepTimings());
+        tracker.load();
+        return tracker;
+    }
+
+    private static Statement failingTimes(int failures, AtomicInteger calls) {
+        return new Statement() {
+            @Override
+            public void evaluate() {
+                if (calls.incrementAndGet() <= failures) throw new AssertionError("toast not shown");
+            }
+        };
+    }
+
+    private void addRun(FlakeTracker tracker, String run, Outcome... outcomes) {
+        for (int i = 0; i < outcomes.length; i++) {
+            tracker.append(new Attempt(NAME, run, i + 1, outcomes[i], 100, null, Map.of()));
+        }
+    }
+
+    @Test
+    public void retriesAFailedTestAndKeepsEveryAttempt() throws Throwable {
+        AtomicInteger calls = new AtomicInteger();
+        tracker(1).retrying(pool).apply(failingTimes(1, calls), TEST).evaluate();
+        assertEquals(2, calls.get());
+
+        List<Attempt> attempts = tracker(1).attempts();
+        assertEquals(List.of(Outcome.FAIL, Outcome.PASS), attempts.stream().map(Attempt::outcome).toList());
+        assertEquals("AssertionError: toast not shown", attempts.get(0).error());
+    }
+
+    /** Drivers that only record whether they were quit. */
+    private static WebDriver fakeDriver(Set<WebDriver> quit) {
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class}, (proxy, method, args) -> null);
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "manage" -> options;
+                    case "getCurrentUrl" -> "about:blank";
+                    case "quit" -> quit.add((WebDriver) proxy);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    @Test
+    public void failedAttemptQuitsItsDriverInsteadOfPoolingIt() throws Throwable {
+        Set<WebDriver> quit = Collections.newSetFromMap(new IdentityHashMap<>());
+        DriverPool browsers = new DriverPool(profile -> fakeDriver(quit), 4);
+        List<WebDriver> used = new ArrayList<>();
+        Statement test = new Statement() {
+            @Override
+            public void evaluate() {
+                WebDriver driver = browsers.checkout(PerformanceProfile.FAST);
+                used.add(driver);
+                try {
+                    if (used.size() == 1) throw new AssertionError("toast not shown");
+                } finally {
+                    browsers.release(driver);
+                }
+            }
+        };
+        tracker(1).retrying(browsers).apply(test, TEST).evaluate();
+
+        assertEquals(2, used.size());
+        assertNotSame(used.get(0), used.get(1));
+        assertEquals(Set.of(used.get(0)), quit);
+        assertSame(used.get(1), browsers.checkout(PerformanceProfile.FAST));
+    }
+
+    @Test
+    public void failsWhenEveryAttemptFails() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(AssertionError.class, () -> tracker(2).retrying(pool).apply(failingTimes(5, calls), TEST).evaluate());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void chronicFlakerIsQuarantinedAndRunsOnce() {
+        FlakeTracker seed = tracker(1);
+        for (int run = 0; run < 3; run++) addRun(seed, "run-" + run, Outcome.FAIL, Outcome.PASS);
+        addRun(seed, "run-3", Outcome.PASS);
+
+        FlakeTracker tracker = tracker(1);
+        assertTrue(tracker.isQuarantined(NAME));
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(AssumptionViolatedException.class,
+                () -> tracker.retrying(pool).apply(failingTimes(5, calls), TEST).evaluate());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void consistentlyBrokenTestIsNotQuarantined() {
+        FlakeTracker seed = tracker(1);
+        for (int run = 0; run < 5; run++) addRun(seed, "run-" + run, Outcome.FAIL, Outcome.FAIL);
+        assertFalse(tracker(1).isQuarantined(NAME));
+    }
+
+    @Test
+    public void flagsFailuresThatComeWithSlowAttempts() {
+        FlakeTracker tracker = tracker(1);
+        long[] durations = {900, 950, 1000, 3100, 3200, 980};
+        for (int i = 0; i < durations.length; i++) {
+            Outcome outcome = durations[i] > 3000 ? Outcome.FAIL : Outcome.PASS;
+            tracker.append(new Attempt(NAME, "run-" + i, 1, outcome, durations[i], null, Map.of()));
+        }
+        assertTrue(tracker.latencyCorrelation().get(NAME) > 0.9);
+        assertTrue(tracker.report().contains("LATENCY-SENSITIVE " + NAME));
+    }
+
+    @Test
+    public void eachReportDirKeepsItsOwnHistory() {
+        String saved = System.getProperty("reportDir");
+        try {
+            System.clearProperty("reportDir");
+            assertEquals(Path.of(".flakes", "history.jsonl"), FlakeTracker.defaultHistory());
+            System.setProperty("reportDir", "target/shard-2-of-3");
+            assertEquals(Path.of(".flakes", "shard-2-of-3", "history.jsonl"), FlakeTracker.defaultHistory());
+        } finally {
+            if (saved == null) System.clearProperty("reportDir");
+            else System.setProperty("reportDir", saved);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package imd.ufrn.br;
+
+import com.sun.net.httpserver.HttpServer;
+import imd.ufrn.br.NetworkCapture.Exchange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.remote.http.HttpMethod;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class HttpReplayTest {
+    private static final String FORM = "application/x-www-form-urlencoded";
+    private static final String JSON = "application/json";
+
+    private FakeGestaoServer server;
+    private List<Exchange> login;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeGestaoServer(0, 0, List.of(new Credentials("tester", "secret"))).start();
+        login = List.of(
+                exchange(HttpMethod.GET, "/login/", null, "", 200),
+                exchange(HttpMethod.POST, "/login/", FORM, "username=tester&password=secret", 302),
+                exchange(HttpMethod.GET, "/", null, "", 200));
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    private Exchange exchange(HttpMethod method, String path, String contentType, String body, int status) {
+        return new Exchange(method, server.baseUrl() + path, contentType, body, status, "");
+    }
+
+    @Test
+    public void replaysLoginAndSaveInOneSession() throws Exception {
+        HttpReplay replay = new HttpReplay(Duration.ofSeconds(5));
+        assertTrue(replay.replay(login));
+        assertTrue(replay.replay(List.of(exchange(HttpMethod.PUT, "/api/usuario/conta", JSON,
+                "{\"nome\":\"Replay\",\"cpf\":\"529.982.247-25\",\"email\":\"replay@example.com\",\"dataNascimento\":\"10/06/1990\"}", 200))));
+        assertEquals("REPLAY", server.profile("tester").nome);
+    }
+
+    @Test
+    public void statusClassMismatchFailsTheReplay() throws Exception {
+        HttpReplay replay = new HttpReplay(Duration.ofSeconds(5));
+        assertFalse(replay.replay(List.of(exchange(HttpMethod.GET, "/lgpd", null, "", 200))));
+    }
+
+    @Test
+    public void resetSessionForgetsTheLogin() throws Exception {
+        HttpReplay replay = new HttpReplay(Duration.ofSeconds(5));
+        assertTrue(replay.replay(login));
+        replay.resetSession();
+        assertFalse(replay.replay(List.of(exchange(HttpMethod.GET, "/lgpd", null, "", 200))));
+        assertTrue(replay.replay(login));
+    }
+
+    @Test
+    public void replaysRecordedHeadersButNotTheSessionOrTransportOnes() throws Exception {
+        Map<String, List<String>> received = new ConcurrentHashMap<>();
+        HttpServer api = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        api.createContext("/", exchange -> {
+            received.putAll(exchange.getRequestHeaders());
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        api.start();
+        try {
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            headers.put("Authorization", List.of("Bearer abc"));
+            headers.put("X-XSRF-TOKEN", List.of("token-1"));
+            headers.put("X-Requested-With", List.of("XMLHttpRequest"));
+            headers.put("Content-Type", List.of(JSON));
+            headers.put("Cookie", List.of("GESTAO_SESSION=recorded"));
+            headers.put("Host", List.of("recorded.example"));
+            headers.put("Content-Length", List.of("2"));
+            headers.put("Connection", List.of("keep-alive"));
+            String url = "http://localhost:" + api.getAddress().getPort() + "/api/usuario/conta";
+            assertTrue(new HttpReplay(Duration.ofSeconds(5)).replay(List.of(
+                    new Exchange(HttpMethod.PUT, url, JSON, "{}", headers, 204, ""))));
+        } finally {
+            api.stop(0);
+        }
+        assertEquals(List.of("Bearer abc"), received.get("Authorization"));
+        assertEquals(List.of("token-1"), received.get("X-xsrf-token"));
+        assertEquals(List.of("XMLHttpRequest"), received.get("X-requested-with"));
+        assertEquals(List.of(JSON), received.get("Content-type"));
+        assertNull(received.get("Cookie"));
+        assertNotEquals(List.of("recorded.example"), received.get("Host"));
+    }
+
+    @Test
+    public void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 100; ms++) histogram.record(ms * 1_000_000L, ms != 100);
+        assertEquals(100, histogram.count());
+        assertEquals(1, histogram.failures());
+        assertEquals(50e6, histogram.percentile(50), 50e6 * 0.1);
+        assertEquals(99e6, histogram.percentile(99), 99e6 * 0.1);
+        assertEquals(100e6, histogram.percentile(100), 100e6 * 0.1);
+        assertEquals(100L, histogram.buckets().values().stream().mapToLong(Long::longValue).sum());
+    }
+}
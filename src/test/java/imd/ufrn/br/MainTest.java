@@ -0,0 +1,110 @@
+package imd.ufrn.br;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.json.Json;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MainTest {
+    private static final List<String> RESTORED = List.of("reportDir", "reportFormat", "shard");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    private final Map<String, String> saved = new HashMap<>();
+
+    {
+        RESTORED.forEach(p -> saved.put(p, System.getProperty(p)));
+    }
+
+    @After
+    public void restoreProperties() {
+        saved.forEach((p, v) -> {
+            if (v == null) System.clearProperty(p);
+            else System.setProperty(p, v);
+        });
+    }
+
+    public static class Fixture {
+        @Test public void test01() {}
+        @Test @DependsOn("test01") public void test02() {}
+        @Test @DependsOn("test02") public void test03() {}
+        @Test public void test04() {}
+        @Test public void test05() {}
+        @Test @DependsOn("test05") public void test06() {}
+        @Test public void test07() {}
+    }
+
+    @Test
+    public void shardsCoverEveryTestOnceAndKeepDependencyChainsTogether() {
+        for (int total = 1; total <= 4; total++) {
+            Set<String> seen = new HashSet<>();
+            for (int index = 1; index <= total; index++) {
+                Set<String> shard = new Shard(index, total).select(Fixture.class);
+                for (String test : shard) assertTrue(test + " in two shards", seen.add(test));
+                assertEquals(shard.contains("test01"), shard.contains("test03"));
+                assertEquals(shard.contains("test05"), shard.contains("test06"));
+            }
+            assertEquals(7, seen.size());
+        }
+        assertEquals(Set.of("test01", "test02", "test03"), new Shard(1, 3).select(Fixture.class));
+    }
+
+    @Test
+    public void shardsSplitTheAccountsWithoutOverlap() {
+        List<String> accounts = List.of("a", "b", "c", "d", "e");
+        assertEquals(List.of("a", "c", "e"), new Shard(1, 2).accounts(accounts));
+        assertEquals(List.of("b", "d"), new Shard(2, 2).accounts(accounts));
+        assertEquals(accounts, Shard.ALL.accounts(accounts));
+        assertThrows(IllegalStateException.class, () -> new Shard(1, 6).accounts(accounts));
+    }
+
+    @Test
+    public void rejectsBadArguments() {
+        assertEquals(2, Main.run("--shard=3/2", "--suite=" + Fixture.class.getName()));
+        assertEquals(2, Main.run("--workers=2"));
+        assertEquals(2, Main.run("--reportFormat=xml"));
+        assertEquals(2, Main.run("merge"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shardReportsMergeIntoOneSummary() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path first = root.resolve("shard-1");
+        Path second = root.resolve("shard-2");
+        assertEquals(0, Main.run("--suite", Fixture.class.getName(), "--shard=1/2", "--reportDir=" + first));
+        assertEquals(0, Main.run("--suite", Fixture.class.getName(), "--shard=2/2", "--reportDir=" + second));
+
+        StepTimings one = new StepTimings();
+        one.record("login:form", 1_000_000);
+        one.writeSamples(first);
+        StepTimings two = new StepTimings();
+        two.record("login:form", 3_000_000);
+        two.writeSamples(second);
+
+        Path merged = root.resolve("merged");
+        assertEquals(0, Main.merge(List.of(first, second), merged, "json"));
+        Map<String, Object> result = new Json().toType(Files.readString(merged.resolve(Main.RESULT_FILE)), Json.MAP_TYPE);
+        assertEquals(7L, result.get("run"));
+        assertEquals(List.of(), result.get("missingShards"));
+
+        Map<String, Object> timings = new Json().toType(Files.readString(merged.resolve("step-timings.json")), Json.MAP_TYPE);
+        Map<String, Object> login = (Map<String, Object>) ((Map<String, Object>) ((Map<String, Object>) timings.get("tests"))
+                .get(StepTimings.NO_TEST)).get("login:form");
+        assertEquals(2L, login.get("count"));
+        assertEquals(3.0, ((Number) login.get("maxMs")).doubleValue(), 0.001);
+
+        assertEquals(1, Main.merge(List.of(first), root.resolve("partial"), "json"));
+    }
+}
@@ -0,0 +1,22 @@
+package imd.ufrn.br;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NavigationTimingsTest {
+    private static final long MS = 1_000_000;
+
+    @Test
+    public void comparesProfilesOnlyOnTheSameStep() {
+        NavigationTimings timings = new NavigationTimings();
+        timings.record(PerformanceProfile.FULL, "navigate:lgpd", 900 * MS);
+        timings.record(PerformanceProfile.FAST, "navigate:edit", 100 * MS);
+        assertFalse(timings.report(), timings.report().contains("saved"));
+
+        timings.record(PerformanceProfile.FULL, "navigate:edit", 400 * MS);
+        timings.record(PerformanceProfile.FAST, "navigate:edit", 200 * MS);
+        assertTrue(timings.report(), timings.report().contains(
+                "navigate:edit FULL avg=400.0ms n=1 FAST avg=150.0ms n=2 (saved ~500ms vs FULL);"));
+    }
+}
@@ -0,0 +1,162 @@
+package imd.ufrn.br;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.TestClass;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParallelRunnerTest {
+    private static String previousWorkers;
+
+    @BeforeClass
+    public static void setWorkers() {
+        previousWorkers = System.getProperty("workers");
+        System.setProperty("workers", "3");
+    }
+
+    @AfterClass
+    public static void restoreWorkers() {
+        if (previousWorkers == null) System.clearProperty("workers");
+        else System.setProperty("workers", previousWorkers);
+    }
+
+    @RunWith(ParallelRunner.class)
+    public static class BrokenLogin {
+        static final AtomicInteger logins = new AtomicInteger();
+
+        @Before
+        public void login() throws InterruptedException {
+            logins.incrementAndGet();
+            Thread.sleep(200);
+            throw new IllegalStateException("login form never appeared");
+        }
+
+        @Test public void test01() {}
+        @Test public void test02() {}
+        @Test public void test03() {}
+        @Test public void test04() {}
+        @Test public void test05() {}
+    }
+
+    @RunWith(ParallelRunner.class)
+    public static class FlakyLogin {
+        static final AtomicInteger logins = new AtomicInteger();
+
+        @ClassRule
+        public static final FlakeTracker FLAKES = new FlakeTracker(tempHistory(), 1, false, new StepTimings());
+        @Rule
+        public final TestRule retry = FLAKES.retrying(new DriverPool(profile -> null, 1));
+
+        @Before
+        public void login() {
+            if (logins.incrementAndGet() == 1) throw new IllegalStateException("login timed out once");
+        }
+
+        @Test public void test01() {}
+        @Test public void test02() {}
+        @Test public void test03() {}
+    }
+
+    @RunWith(ParallelRunner.class)
+    public static class Chain {
+        static final Queue<String> ran = new ConcurrentLinkedQueue<>();
+
+        @Test
+        @DependsOn("test03_Save")
+        public void test01_NeedsSave() {
+            ran.add("test01_NeedsSave");
+        }
+
+        @Test
+        @DependsOn("test01_NeedsSave")
+        public void test02_NeedsNeedsSave() {
+            ran.add("test02_NeedsNeedsSave");
+        }
+
+        @Test
+        public void test03_Save() {
+            ran.add("test03_Save");
+            fail("save broken");
+        }
+
+        @Test
+        public void test04_Independent() {
+            ran.add("test04_Independent");
+        }
+    }
+
+    @RunWith(ParallelRunner.class)
+    public static class Cycle {
+        @Test @DependsOn("b") public void a() {}
+        @Test @DependsOn("a") public void b() {}
+    }
+
+    @Test
+    public void brokenLoginFailsOnceAndSkipsTheRest() {
+        Result result = JUnitCore.runClasses(BrokenLogin.class);
+        assertEquals(5, result.getRunCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals(4, result.getAssumptionFailureCount());
+        assertEquals(1, BrokenLogin.logins.get());
+    }
+
+    private static Path tempHistory() {
+        try {
+            Path history = Files.createTempFile("flakes", ".jsonl");
+            history.toFile().deleteOnExit();
+            return history;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    public void setUpFailureRecoveredByARetryDoesNotSkipTheRest() {
+        Result result = JUnitCore.runClasses(FlakyLogin.class);
+        assertEquals(3, result.getRunCount());
+        assertTrue(result.wasSuccessful());
+        assertEquals(0, result.getAssumptionFailureCount());
+    }
+
+    @Test
+    public void dependentsOfAFailedTestAreSkippedTransitively() {
+        Result result = JUnitCore.runClasses(Chain.class);
+        assertEquals(1, result.getFailureCount());
+        assertEquals(2, result.getAssumptionFailureCount());
+        assertEquals(List.of("test03_Save", "test04_Independent"), Chain.ran.stream().sorted().toList());
+    }
+
+    @Test
+    public void dependenciesAreOrderedFirst() {
+        List<String> order = DependencyGraph.order(new TestClass(Chain.class).getAnnotatedMethods(Test.class))
+                .stream().map(FrameworkMethod::getName).toList();
+        assertTrue(order.indexOf("test03_Save") < order.indexOf("test01_NeedsSave"));
+        assertTrue(order.indexOf("test01_NeedsSave") < order.indexOf("test02_NeedsNeedsSave"));
+    }
+
+    @Test
+    public void cyclesAreInitializationErrors() {
+        Result result = JUnitCore.runClasses(Cycle.class);
+        assertEquals(1, result.getFailureCount());
+        assertTrue(result.getFailures().get(0).getMessage().contains("cycle"));
+    }
+}
@@ -0,0 +1,84 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.ScenarioOrchestrator.Run;
+import imd.ufrn.br.ScenarioOrchestrator.Scenario;
+import imd.ufrn.br.ScenarioOrchestrator.Status;
+import imd.ufrn.br.ScenarioOrchestrator.ThreadModel;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class ScenarioOrchestratorTest {
+    private static final int WAITERS = 200;
+
+    private static List<Scenario> blockingWaits(int count, Duration each) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            scenarios.add(new Scenario("wait-" + i, Duration.ofSeconds(30), context -> Thread.sleep(each.toMillis())));
+        }
+        return scenarios;
+    }
+
+    @Test
+    public void virtualThreadsParkBlockedWaitsWithoutPlatformThreads() throws Exception {
+        Run virtual = new ScenarioOrchestrator(ThreadModel.VIRTUAL, false).runAll(blockingWaits(WAITERS, Duration.ofMillis(300)));
+        Run platform = new ScenarioOrchestrator(ThreadModel.PLATFORM, false).runAll(blockingWaits(WAITERS, Duration.ofMillis(300)));
+        System.out.println(virtual.usage());
+        System.out.println(platform.usage());
+
+        assertTrue(virtual.allSucceeded());
+        assertTrue(platform.allSucceeded());
+        assertTrue("Virtual run used " + virtual.usage().extraPlatformThreads() + " extra platform threads",
+                virtual.usage().extraPlatformThreads() < WAITERS / 4);
+        assertTrue("Platform run used " + platform.usage().extraPlatformThreads() + " extra platform threads",
+                platform.usage().extraPlatformThreads() >= WAITERS / 2);
+    }
+
+    @Test
+    public void scenarioPastItsDeadlineIsCancelledThroughItsHooks() throws Exception {
+        AtomicBoolean released = new AtomicBoolean();
+        // Ignores interrupts like a driver call stuck on the browser; only the hook unblocks it
+        Scenario stuck = new Scenario("stuck", Duration.ofMillis(200), context -> {
+            context.onCancel(() -> released.set(true));
+            while (!released.get()) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+        long start = System.nanoTime();
+        Run run = new ScenarioOrchestrator(ThreadModel.VIRTUAL, false).runAll(List.of(stuck));
+        assertEquals(Status.TIMED_OUT, run.results().get(0).status());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    public void failFastCancelsTheOtherScenarios() throws Exception {
+        List<Scenario> scenarios = new ArrayList<>(blockingWaits(5, Duration.ofSeconds(20)));
+        scenarios.add(new Scenario("broken", Duration.ofSeconds(30), context -> {
+            throw new IllegalStateException("login failed");
+        }));
+        long start = System.nanoTime();
+        Run run = new ScenarioOrchestrator(ThreadModel.VIRTUAL, true).runAll(scenarios);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        assertEquals(Status.FAILED, run.results().get(5).status());
+        for (int i = 0; i < 5; i++) assertEquals(Status.CANCELLED, run.results().get(i).status());
+    }
+
+    @Test
+    public void withoutFailFastTheOthersFinish() throws Exception {
+        List<Scenario> scenarios = new ArrayList<>(blockingWaits(3, Duration.ofMillis(100)));
+        scenarios.add(new Scenario("broken", Duration.ofSeconds(30), context -> {
+            throw new IllegalStateException("login failed");
+        }));
+        Run run = new ScenarioOrchestrator(ThreadModel.VIRTUAL, false).runAll(scenarios);
+        assertEquals(Status.FAILED, run.results().get(3).status());
+        for (int i = 0; i < 3; i++) assertEquals(Status.SUCCEEDED, run.results().get(i).status());
+    }
+}
@@ -0,0 +1,89 @@
+package imd.ufrn.br;
+
+import imd.ufrn.br.UploadFixtures.Format;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class UploadFixturesTest {
+    private Path dir;
+    private UploadFixtures fixtures;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("upload-fixtures");
+        fixtures = new UploadFixtures(dir);
+    }
+
+    @After
+    public void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    public void jpegAndPngDecodeWithRequestedDimensions() throws IOException {
+        for (Format format : new Format[]{Format.JPEG, Format.PNG}) {
+            BufferedImage image = ImageIO.read(fixtures.image(format, 120, 80).toFile());
+            assertNotNull(format + " did not decode", image);
+            assertEquals(120, image.getWidth());
+            assertEquals(80, image.getHeight());
+        }
+    }
+
+    @Test
+    public void webpHasRiffVp8lHeaderAndDimensions() throws IOException {
+        byte[] bytes = Files.readAllBytes(fixtures.image(Format.WEBP, 300, 7));
+        assertEquals("RIFF", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("WEBPVP8L", new String(bytes, 8, 8, StandardCharsets.US_ASCII));
+        assertEquals(bytes.length - 8, le32(bytes, 4));
+        assertEquals(0x2f, bytes[20] & 0xff);
+        int bits = le32(bytes, 21);
+        assertEquals(300, (bits & 0x3fff) + 1);
+        assertEquals(7, ((bits >>> 14) & 0x3fff) + 1);
+    }
+
+    @Test
+    public void payloadGrowsWithDimensions() throws IOException {
+        for (Format format : Format.values()) {
+            long small = Files.size(fixtures.image(format, 64, 64));
+            long large = Files.size(fixtures.image(format, 512, 512));
+            assertTrue(format + ": " + small + " vs " + large, large > small * 20);
+        }
+    }
+
+    @Test
+    public void fixturesAreGeneratedOncePerRun() throws IOException {
+        Path first = fixtures.image(Format.PNG, 32, 32);
+        Files.writeString(first, "changed");
+        assertEquals(first, fixtures.image(Format.PNG, 32, 32));
+        assertEquals("changed", Files.readString(first));
+    }
+
+    @Test
+    public void maliciousVariantsKeepTheirExtension() throws IOException {
+        Path exe = fixtures.malicious(".exe");
+        assertTrue(exe.getFileName().toString().endsWith(".exe"));
+        assertTrue(Arrays.equals(new byte[]{'M', 'Z'}, Arrays.copyOf(Files.readAllBytes(exe), 2)));
+    }
+
+    @Test
+    public void cleanUpRemovesTheDirectory() {
+        fixtures.image(Format.JPEG, 16, 16);
+        fixtures.cleanUp();
+        assertFalse(Files.exists(dir));
+    }
+
+    private static int le32(byte[] b, int offset) {
+        return (b[offset] & 0xff) | (b[offset + 1] & 0xff) << 8 | (b[offset + 2] & 0xff) << 16 | (b[offset + 3] & 0xff) << 24;
+    }
+}